@@ -0,0 +1,138 @@
+package com.example.bankcards.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ограничение числа одновременно открытых соединений перед пулом. Разрешение берётся при выдаче соединения
+ * и возвращается при его закрытии, то есть держится всю транзакцию.
+ * <p>
+ * На виртуальных потоках запросов в работе может быть тысячи: лишние ждут разрешения в очереди семафора
+ * (ожидание стоит дёшево, поток-носитель освобождается), а при переполнении очереди или по таймауту
+ * запрос сразу получает отказ вместо ожидания connection-timeout пула.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+
+    private final int maxConcurrent;
+
+    private final int maxWaiting;
+
+    private final long acquireTimeoutNanos;
+
+    private final Timer waitTimer;
+
+    private final Counter rejectedCounter;
+
+    public BulkheadDataSource(DataSource targetDataSource, int maxConcurrent, int maxWaiting,
+                              Duration acquireTimeout, MeterRegistry meterRegistry) {
+        this(targetDataSource, maxConcurrent, maxWaiting, acquireTimeout, meterRegistry, Tags.empty());
+    }
+
+    public BulkheadDataSource(DataSource targetDataSource, int maxConcurrent, int maxWaiting,
+                              Duration acquireTimeout, MeterRegistry meterRegistry, Tags tags) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.waitTimer = meterRegistry.timer("db.bulkhead.wait", tags);
+        this.rejectedCounter = meterRegistry.counter("db.bulkhead.rejected", tags);
+        Gauge.builder("db.bulkhead.active", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("db.bulkhead.waiting", permits, Semaphore::getQueueLength)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.getQueueLength() >= maxWaiting) {
+            rejectedCounter.increment();
+            throw new SQLTransientConnectionException(
+                    "Очередь к базе данных переполнена: " + maxWaiting + " запросов ждут соединения");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejectedCounter.increment();
+                throw new SQLTransientConnectionException("Не дождались соединения с базой данных за "
+                        + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + " мс, занято " + maxConcurrent);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Ожидание соединения с базой данных прервано", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Connection releasingOnClose(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            yield invoke(target, method, args);
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                    }
+                    default -> invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Connection target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
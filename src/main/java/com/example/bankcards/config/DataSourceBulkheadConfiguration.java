@@ -0,0 +1,51 @@
+package com.example.bankcards.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(value = "db.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceBulkheadConfiguration {
+
+    /**
+     * Оборачивает пул после его создания: Hikari и его метрики остаются как есть,
+     * всё, что берёт соединения (JPA, JdbcTemplate, Liquibase), проходит через семафор.
+     * Источник с репликой (ReadReplicaDataSourceConfiguration) ограничивает каждый свой пул сам.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment environment,
+                                                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || isLimited(dataSource)) {
+                    return bean;
+                }
+                return new BulkheadDataSource(
+                        dataSource,
+                        environment.getRequiredProperty("db.bulkhead.max-concurrent", Integer.class),
+                        environment.getProperty("db.bulkhead.max-waiting", Integer.class, 2000),
+                        environment.getProperty("db.bulkhead.acquire-timeout", Duration.class, Duration.ofSeconds(10)),
+                        meterRegistry.getObject()
+                );
+            }
+        };
+    }
+
+    private static boolean isLimited(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(BulkheadDataSource.class);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
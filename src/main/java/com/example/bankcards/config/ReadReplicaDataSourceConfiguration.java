@@ -0,0 +1,121 @@
+package com.example.bankcards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Два пула Hikari - основной (spring.datasource) и реплика (db.replica) - за одним DataSource,
+ * который отдаёт readOnly-транзакциям соединения реплики. У каждого пула свои метрики Hikari
+ * (тег pool) и, при включённом db.bulkhead, свой семафор.
+ * <p>
+ * Пул выбирается, когда LazyConnectionDataSourceProxy берёт физическое соединение, поэтому соединение
+ * должно жить не дольше транзакции: spring.jpa.open-in-view выключен, иначе Hibernate держал бы первое
+ * соединение запроса и следующая транзакция с записью ушла бы в реплику.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(value = "db.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfiguration {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        HikariDataSource primaryPool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        pools.add(primaryPool);
+        configurePool(primaryPool, environment, "spring.datasource.hikari", ReadReplicaRoutingDataSource.PRIMARY,
+                meterRegistry);
+        DataSource primary = limit(primaryPool, environment, "db.bulkhead.max-concurrent",
+                ReadReplicaRoutingDataSource.PRIMARY, meterRegistry);
+
+        DataSource replica = null;
+        String replicaUrl = environment.getProperty("db.replica.url");
+        if (StringUtils.hasText(replicaUrl)) {
+            HikariDataSource replicaPool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(replicaUrl)
+                    .username(environment.getProperty("db.replica.username", properties.determineUsername()))
+                    .password(environment.getProperty("db.replica.password", properties.determinePassword()))
+                    .build();
+            pools.add(replicaPool);
+            replicaPool.setReadOnly(true);
+            configurePool(replicaPool, environment, "db.replica.hikari", ReadReplicaRoutingDataSource.REPLICA,
+                    meterRegistry);
+            replica = limit(replicaPool, environment, "db.replica.max-concurrent",
+                    ReadReplicaRoutingDataSource.REPLICA, meterRegistry);
+            log.info("readOnly-транзакции направляются в реплику {}", replicaUrl);
+        } else {
+            log.warn("db.replica.url не задан, readOnly-транзакции выполняются на основной БД");
+        }
+
+        Duration retryAfter = environment.getProperty("db.replica.retry-after", Duration.class, Duration.ofSeconds(10));
+        return new PooledDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primary, replica, retryAfter, meterRegistry), pools);
+    }
+
+    private void configurePool(HikariDataSource pool, Environment environment, String prefix, String poolName,
+                               MeterRegistry meterRegistry) {
+        Binder.get(environment).bind(prefix, Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+
+    private DataSource limit(HikariDataSource pool, Environment environment, String maxConcurrentProperty,
+                             String poolName, MeterRegistry meterRegistry) {
+        if (!environment.getProperty("db.bulkhead.enabled", Boolean.class, true)) {
+            return pool;
+        }
+        return new BulkheadDataSource(
+                pool,
+                environment.getProperty(maxConcurrentProperty, Integer.class, pool.getMaximumPoolSize()),
+                environment.getProperty("db.bulkhead.max-waiting", Integer.class, 2000),
+                environment.getProperty("db.bulkhead.acquire-timeout", Duration.class, Duration.ofSeconds(10)),
+                meterRegistry,
+                Tags.of("pool", poolName)
+        );
+    }
+
+    /**
+     * Пулы создаются внутри метода @Bean и сами бинами не являются: закрывает их при остановке контекста
+     * (Spring находит close() как метод уничтожения бина).
+     */
+    static class PooledDataSourceProxy extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final List<HikariDataSource> pools;
+
+        PooledDataSourceProxy(DataSource targetDataSource, List<HikariDataSource> pools) {
+            super(targetDataSource);
+            this.pools = List.copyOf(pools);
+        }
+
+        List<HikariDataSource> getPools() {
+            return pools;
+        }
+
+        @Override
+        public void close() {
+            pools.forEach(HikariDataSource::close);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.bankcards.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Соединения readOnly-транзакций берутся из пула реплики, все остальные - из основного пула.
+ * Решение принимается по флагу текущей транзакции, поэтому снаружи должен стоять LazyConnectionDataSourceProxy:
+ * менеджер транзакций запрашивает соединение раньше, чем выставляет флаг.
+ * <p>
+ * Реплика не настроена или не выдала соединение - читаем из основного пула. После отказа реплика
+ * пропускается на retryAfter, чтобы каждое чтение не ждало connection-timeout её пула.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    public static final String REPLICA = "replica";
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    private final long retryAfterNanos;
+
+    private volatile long replicaRetryAt;
+
+    private final Counter primaryCounter;
+
+    private final Counter replicaCounter;
+
+    private final Counter fallbackCounter;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration retryAfter,
+                                        MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.replicaRetryAt = System.nanoTime();
+        this.primaryCounter = meterRegistry.counter("db.routing.connections", "target", PRIMARY);
+        this.replicaCounter = meterRegistry.counter("db.routing.connections", "target", REPLICA);
+        this.fallbackCounter = meterRegistry.counter("db.routing.fallback");
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        if (replica != null) {
+            targets.put(REPLICA, replica);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replica != null && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && System.nanoTime() - replicaRetryAt >= 0 ? REPLICA : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (REPLICA.equals(determineCurrentLookupKey())) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaCounter.increment();
+                return connection;
+            } catch (SQLException e) {
+                replicaRetryAt = System.nanoTime() + retryAfterNanos;
+                fallbackCounter.increment();
+                log.warn("Реплика не выдала соединение, чтение на основной БД в течение {} мс: {}",
+                        Duration.ofNanos(retryAfterNanos).toMillis(), e.getMessage());
+            }
+        }
+        primaryCounter.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTargetDataSource().getConnection(username, password);
+    }
+}
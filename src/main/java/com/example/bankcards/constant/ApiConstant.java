@@ -13,16 +13,36 @@ public final class ApiConstant {
 
     public static final String CREATE = "/create";
 
+    public static final String IMPORT = "/import";
+
     public static final String GET_ALL = "/get-all";
 
+    public static final String SEEK = "/seek";
+
     public static final String UPDATE = "/update";
 
     public static final String BLOCKED = "/blocked";
 
+    public static final String BLOCK_REQUESTS = "/block-requests";
+
+    public static final String DECISION = "/decision";
+
+    public static final String EXPIRE = "/expire";
+
     public static final String BALANCE = "/balance";
 
+    public static final String STATEMENT = "/statement";
+
     public static final String TRANSFER = "/transfer";
 
+    public static final String BATCH = "/batch";
+
+    public static final String ASYNC = "/async";
+
+    public static final String HISTORY = "/history";
+
+    public static final String EXPORT = "/export";
+
     public static final String SIGN_UP = "/sign-up";
 
     public static final String SIGN_IN = "/sign-in";
@@ -34,4 +54,8 @@ public final class ApiConstant {
     public static final String USER_ID = "/user/{userId}";
 
     public static final String CARD_ID = "/{cardId}";
+
+    public static final String SUBMISSION_ID = "/{submissionId}";
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.example.bankcards.constant;
+
+public final class MetricConstant {
+
+    private MetricConstant() {
+    }
+
+    public static final String CARD_TRANSFER = "card.transfer";
+
+    public static final String CARD_TRANSFER_REPLAY = "card.transfer.idempotent.replay";
+
+    public static final String CARD_TRANSFER_ASYNC_BATCH = "card.transfer.async.batch";
+
+    public static final String CARD_TRANSFER_ASYNC_BATCH_SIZE = "card.transfer.async.batch.size";
+
+    public static final String CARD_TRANSFER_ASYNC_QUEUE = "card.transfer.async.queue";
+
+    public static final String CARD_TRANSFER_OUTBOX_PUBLISHED = "card.transfer.outbox.published";
+
+    public static final String CARD_TRANSFER_OUTBOX_BATCH = "card.transfer.outbox.batch";
+
+    public static final String CARD_TRANSFER_OUTBOX_LAG = "card.transfer.outbox.lag";
+
+    public static final String CARD_SNAPSHOT_CACHE = "card.snapshot";
+
+    public static final String CARD_LOCK_WAIT = "card.lock.wait";
+
+    public static final String CARD_CREATE = "card.create";
+
+    public static final String CARD_ENCRYPTION = "card.encryption";
+
+    public static final String JWT_PARSE = "auth.jwt.parse";
+
+    public static final String JWT_FILTER = "auth.jwt.filter";
+
+    public static final String OUTCOME_TAG = "outcome";
+
+    public static final String OPERATION_TAG = "operation";
+
+    public static final String PRINCIPAL_TAG = "principal";
+}
@@ -1,32 +1,61 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.enums.CardImportFormat;
+import com.example.bankcards.dto.enums.TransferDirection;
+import com.example.bankcards.dto.enums.TransferExportFormat;
+import com.example.bankcards.dto.request.BlockRequestDecisionRequest;
+import com.example.bankcards.dto.request.CardBatchTransferRequest;
 import com.example.bankcards.dto.request.CardTransferRequest;
 import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.request.UpdateCardRequest;
+import com.example.bankcards.dto.response.AsyncTransferResponse;
+import com.example.bankcards.dto.response.BlockRequestDecisionResponse;
+import com.example.bankcards.dto.response.CardBatchTransferResponse;
+import com.example.bankcards.dto.response.CardExpirationResponse;
+import com.example.bankcards.dto.response.CardImportResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CardStatementResponse;
 import com.example.bankcards.dto.response.CardTransferResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
+import static com.example.bankcards.constant.ApiConstant.ASYNC;
 import static com.example.bankcards.constant.ApiConstant.BALANCE;
+import static com.example.bankcards.constant.ApiConstant.BATCH;
 import static com.example.bankcards.constant.ApiConstant.BLOCKED;
+import static com.example.bankcards.constant.ApiConstant.BLOCK_REQUESTS;
 import static com.example.bankcards.constant.ApiConstant.CARD_BASE_URL;
 import static com.example.bankcards.constant.ApiConstant.CARD_ID;
 import static com.example.bankcards.constant.ApiConstant.CARD_NUMBER;
 import static com.example.bankcards.constant.ApiConstant.CREATE;
+import static com.example.bankcards.constant.ApiConstant.DECISION;
+import static com.example.bankcards.constant.ApiConstant.EXPIRE;
+import static com.example.bankcards.constant.ApiConstant.EXPORT;
 import static com.example.bankcards.constant.ApiConstant.GET_ALL;
+import static com.example.bankcards.constant.ApiConstant.HISTORY;
+import static com.example.bankcards.constant.ApiConstant.IDEMPOTENCY_KEY_HEADER;
+import static com.example.bankcards.constant.ApiConstant.IMPORT;
+import static com.example.bankcards.constant.ApiConstant.SEEK;
+import static com.example.bankcards.constant.ApiConstant.STATEMENT;
+import static com.example.bankcards.constant.ApiConstant.SUBMISSION_ID;
 import static com.example.bankcards.constant.ApiConstant.TRANSFER;
 import static com.example.bankcards.constant.ApiConstant.UPDATE;
 import static com.example.bankcards.constant.ApiConstant.USER_ID;
@@ -38,6 +67,13 @@ public interface CardController {
     @Operation(summary = "Создание карты")
     ResponseEntity<CardResponse> createCard(@Valid @RequestBody CreateCardRequest createCardRequest);
 
+    @PostMapping(IMPORT)
+    @Operation(summary = "Массовый импорт карт из CSV (card_number,client_id,expiration_date,balance) или NDJSON в теле запроса")
+    ResponseEntity<CardImportResponse> importCards(
+            @RequestParam(defaultValue = "CSV") CardImportFormat format,
+            InputStream body
+    );
+
     @GetMapping(CARD_ID)
     @Operation(summary = "Получение карты по Id")
     ResponseEntity<CardResponse> getCard(@PathVariable Long cardId);
@@ -65,6 +101,29 @@ public interface CardController {
             @RequestParam(defaultValue = "20") @Min(1) @Max(100) Integer size
     );
 
+    @GetMapping(SEEK + GET_ALL)
+    @Operation(summary = "Получение всех карт постранично по курсору (без подсчёта общего количества)")
+    CursorPageResponse<CardResponse> getAllCardsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) Integer size
+    );
+
+    @GetMapping(SEEK + GET_ALL + USER_ID)
+    @Operation(summary = "Получение всех карт пользователя постранично по курсору")
+    CursorPageResponse<CardResponse> getAllCardsByUserIdAfter(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) Integer size
+    );
+
+    @GetMapping(SEEK + GET_ALL + CARD_NUMBER)
+    @Operation(summary = "Получение карт по последним 4 цифрам постранично по курсору")
+    CursorPageResponse<CardResponse> getAllCardsByCardNumberAfter(
+            @PathVariable String cardNumber,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) Integer size
+    );
+
     @PostMapping(UPDATE + CARD_ID)
     @Operation(summary = "Обновление карты (изменение статуса или баланса карты)")
     ResponseEntity<CardResponse> updateCard(
@@ -76,11 +135,70 @@ public interface CardController {
     @Operation(summary = "Запрос на блокировку карты")
     ResponseEntity<CardResponse>  blockedCard(@PathVariable Long cardId);
 
+    @GetMapping(BLOCK_REQUESTS)
+    @Operation(summary = "Очередь запросов на блокировку карт постранично по курсору")
+    CursorPageResponse<CardResponse> getBlockRequests(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) Integer size
+    );
+
+    @PostMapping(BLOCK_REQUESTS + DECISION)
+    @Operation(summary = "Массовое одобрение или отклонение запросов на блокировку карт")
+    ResponseEntity<BlockRequestDecisionResponse> resolveBlockRequests(
+            @Valid @RequestBody BlockRequestDecisionRequest decisionRequest
+    );
+
+    @PostMapping(EXPIRE)
+    @Operation(summary = "Внеплановый перевод просроченных карт в статус EXPIRED")
+    ResponseEntity<CardExpirationResponse> expireCards();
+
     @GetMapping(BALANCE + CARD_ID)
     @Operation(summary = "Получение баланса карты по Id")
     ResponseEntity<BigDecimal> getCardBalance(@PathVariable Long cardId);
 
+    @GetMapping(STATEMENT + CARD_ID)
+    @Operation(summary = "Выписка по карте за период: баланс на начало и конец, суммы зачислений и списаний")
+    ResponseEntity<CardStatementResponse> getCardStatement(
+            @PathVariable Long cardId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    );
+
     @PostMapping(TRANSFER)
     @Operation(summary = "Перевод средств между картами")
-    ResponseEntity<CardTransferResponse> transferBetweenCards(@Valid @RequestBody CardTransferRequest transferRequest);
+    ResponseEntity<CardTransferResponse> transferBetweenCards(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CardTransferRequest transferRequest
+    );
+
+    @PostMapping(TRANSFER + BATCH)
+    @Operation(summary = "Пакетный перевод средств между картами в одной транзакции")
+    ResponseEntity<CardBatchTransferResponse> transferBatch(@Valid @RequestBody CardBatchTransferRequest batchRequest);
+
+    @PostMapping(TRANSFER + ASYNC)
+    @Operation(summary = "Приём перевода на асинхронное исполнение, результат - по номеру заявки")
+    ResponseEntity<AsyncTransferResponse> submitTransfer(@Valid @RequestBody CardTransferRequest transferRequest);
+
+    @GetMapping(TRANSFER + ASYNC + SUBMISSION_ID)
+    @Operation(summary = "Состояние асинхронного перевода по номеру заявки")
+    ResponseEntity<AsyncTransferResponse> getTransferSubmission(@PathVariable Long submissionId);
+
+    @GetMapping(TRANSFER + HISTORY + CARD_ID)
+    @Operation(summary = "История переводов карты за период, постранично по курсору (новые сначала)")
+    CursorPageResponse<CardTransferResponse> getTransferHistory(
+            @PathVariable Long cardId,
+            @RequestParam(defaultValue = "ALL") TransferDirection direction,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) Integer size
+    );
+
+    @GetMapping(TRANSFER + EXPORT)
+    @Operation(summary = "Потоковая выгрузка переводов за период в CSV или NDJSON")
+    ResponseEntity<StreamingResponseBody> exportTransfers(
+            @RequestParam(defaultValue = "CSV") TransferExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    );
 }
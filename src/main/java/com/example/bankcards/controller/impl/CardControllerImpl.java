@@ -1,21 +1,42 @@
 package com.example.bankcards.controller.impl;
 
 import com.example.bankcards.controller.CardController;
+import com.example.bankcards.dto.enums.CardImportFormat;
+import com.example.bankcards.dto.enums.TransferDirection;
+import com.example.bankcards.dto.enums.TransferExportFormat;
+import com.example.bankcards.dto.request.BlockRequestDecisionRequest;
+import com.example.bankcards.dto.request.CardBatchTransferRequest;
 import com.example.bankcards.dto.request.CardTransferRequest;
 import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.request.UpdateCardRequest;
+import com.example.bankcards.dto.response.AsyncTransferResponse;
+import com.example.bankcards.dto.response.BlockRequestDecisionResponse;
+import com.example.bankcards.dto.response.CardBatchTransferResponse;
+import com.example.bankcards.dto.response.CardExpirationResponse;
+import com.example.bankcards.dto.response.CardImportResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CardStatementResponse;
 import com.example.bankcards.dto.response.CardTransferResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
+import com.example.bankcards.service.AsyncTransferService;
+import com.example.bankcards.service.CardExpirationService;
+import com.example.bankcards.service.CardImportService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.TransferExportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 
 @RestController
@@ -25,12 +46,26 @@ public class CardControllerImpl implements CardController {
 
     private final CardService cardService;
 
+    private final TransferExportService transferExportService;
+
+    private final CardImportService cardImportService;
+
+    private final CardExpirationService cardExpirationService;
+
+    private final AsyncTransferService asyncTransferService;
+
     @Override
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<CardResponse> createCard(CreateCardRequest createCardRequest) {
         return ResponseEntity.status(HttpStatus.CREATED).body(cardService.createCard(createCardRequest));
     }
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CardImportResponse> importCards(CardImportFormat format, InputStream body) {
+        return ResponseEntity.ok(cardImportService.importCards(format, body));
+    }
+
     @Override
     public ResponseEntity<CardResponse> getCard(Long cardId) {
         return ResponseEntity.ok(cardService.getCard(cardId));
@@ -53,6 +88,22 @@ public class CardControllerImpl implements CardController {
         return cardService.getAllCardsByLastFourDigits(cardNumber, PageRequest.of(page, size));
     }
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPageResponse<CardResponse> getAllCardsAfter(String after, Integer size) {
+        return cardService.getAllCardsAfter(after, size);
+    }
+
+    @Override
+    public CursorPageResponse<CardResponse> getAllCardsByUserIdAfter(Long userId, String after, Integer size) {
+        return cardService.getAllCardsByUserIdAfter(userId, after, size);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPageResponse<CardResponse> getAllCardsByCardNumberAfter(String cardNumber, String after, Integer size) {
+        return cardService.getAllCardsByLastFourDigitsAfter(cardNumber, after, size);
+    }
 
     @Override
     @PreAuthorize("hasRole('ADMIN')")
@@ -66,15 +117,78 @@ public class CardControllerImpl implements CardController {
         return ResponseEntity.ok(cardService.blockedCard(cardId));
     }
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPageResponse<CardResponse> getBlockRequests(String after, Integer size) {
+        return cardService.getBlockRequestsAfter(after, size);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BlockRequestDecisionResponse> resolveBlockRequests(BlockRequestDecisionRequest decisionRequest) {
+        return ResponseEntity.ok(cardService.resolveBlockRequests(decisionRequest));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CardExpirationResponse> expireCards() {
+        return ResponseEntity.ok(cardExpirationService.expireCards());
+    }
+
     @Override
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<BigDecimal> getCardBalance(Long cardId) {
         return ResponseEntity.ok(cardService.getCardBalance(cardId));
     }
 
+    @Override
+    public ResponseEntity<CardStatementResponse> getCardStatement(Long cardId, LocalDate from, LocalDate to) {
+        return ResponseEntity.ok(cardService.getCardStatement(cardId, from, to));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CardTransferResponse> transferBetweenCards(String idempotencyKey,
+                                                                     CardTransferRequest transferRequest) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(cardService.transferBetweenCards(transferRequest));
+        }
+        return ResponseEntity.ok(cardService.transferBetweenCards(transferRequest, idempotencyKey));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CardBatchTransferResponse> transferBatch(CardBatchTransferRequest batchRequest) {
+        return ResponseEntity.ok(cardService.transferBatch(batchRequest));
+    }
+
     @Override
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<CardTransferResponse> transferBetweenCards(CardTransferRequest transferRequest) {
-        return ResponseEntity.ok(cardService.transferBetweenCards(transferRequest));
+    public ResponseEntity<AsyncTransferResponse> submitTransfer(CardTransferRequest transferRequest) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(asyncTransferService.submit(transferRequest));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<AsyncTransferResponse> getTransferSubmission(Long submissionId) {
+        return ResponseEntity.ok(asyncTransferService.getSubmission(submissionId));
+    }
+
+    @Override
+    public CursorPageResponse<CardTransferResponse> getTransferHistory(Long cardId, TransferDirection direction,
+                                                                       LocalDate from, LocalDate to,
+                                                                       String after, Integer size) {
+        return cardService.getTransferHistory(cardId, direction, from, to, after, size);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTransfers(TransferExportFormat format,
+                                                                 LocalDate from, LocalDate to) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transfers." + format.getFileExtension() + "\"")
+                .body(outputStream -> transferExportService.export(format, from, to, outputStream));
     }
 }
@@ -0,0 +1,7 @@
+package com.example.bankcards.dto.enums;
+
+public enum BatchTransferItemStatus {
+    COMPLETED,
+    FAILED,
+    ROLLED_BACK
+}
@@ -0,0 +1,6 @@
+package com.example.bankcards.dto.enums;
+
+public enum BatchTransferMode {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
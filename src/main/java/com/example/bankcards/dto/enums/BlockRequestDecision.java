@@ -0,0 +1,6 @@
+package com.example.bankcards.dto.enums;
+
+public enum BlockRequestDecision {
+    APPROVE,
+    REJECT
+}
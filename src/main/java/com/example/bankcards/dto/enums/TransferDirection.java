@@ -0,0 +1,7 @@
+package com.example.bankcards.dto.enums;
+
+public enum TransferDirection {
+    IN,
+    OUT,
+    ALL
+}
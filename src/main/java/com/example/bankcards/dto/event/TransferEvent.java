@@ -0,0 +1,41 @@
+package com.example.bankcards.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Событие о выполненном переводе для внешних систем. Доставка не реже одного раза: повтор
+ * распознаётся по eventId.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferEvent {
+
+    private Long eventId;
+
+    private Long transferId;
+
+    private Long fromCardId;
+
+    private Long toCardId;
+
+    private BigDecimal amount;
+
+    private BigDecimal fromCardNewBalance;
+
+    /**
+     * null для зачисления в слот горячей карты: баланс получателя в этот момент не фиксируется.
+     */
+    private BigDecimal toCardNewBalance;
+
+    private String description;
+
+    private LocalDateTime createdAt;
+}
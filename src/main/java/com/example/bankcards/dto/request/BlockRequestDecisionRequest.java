@@ -0,0 +1,31 @@
+package com.example.bankcards.dto.request;
+
+import com.example.bankcards.dto.enums.BlockRequestDecision;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockRequestDecisionRequest {
+
+    @Schema(description = "APPROVE - заблокировать карты, REJECT - вернуть их в ACTIVE", example = "APPROVE")
+    @NotNull(message = "Решение по запросам на блокировку обязательно")
+    private BlockRequestDecision decision;
+
+    @Schema(description = "Id карт с запросом на блокировку")
+    @NotEmpty(message = "Нужно указать хотя бы одну карту")
+    @Size(max = 10000, message = "За один раз можно обработать не больше 10000 карт")
+    private List<@NotNull Long> cardIds;
+}
@@ -0,0 +1,34 @@
+package com.example.bankcards.dto.request;
+
+import com.example.bankcards.dto.enums.BatchTransferMode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardBatchTransferRequest {
+
+    @Schema(description = "Режим выполнения: ALL_OR_NOTHING - все переводы или ни одного, BEST_EFFORT - только прошедшие проверки",
+            example = "ALL_OR_NOTHING")
+    @NotNull(message = "Режим выполнения пакета обязателен")
+    @Builder.Default
+    private BatchTransferMode mode = BatchTransferMode.ALL_OR_NOTHING;
+
+    @Schema(description = "Переводы в порядке выполнения")
+    @NotEmpty(message = "Пакет должен содержать хотя бы один перевод")
+    @Size(max = 5000, message = "Пакет не может содержать больше 5000 переводов")
+    private List<@NotNull @Valid CardTransferRequest> transfers;
+}
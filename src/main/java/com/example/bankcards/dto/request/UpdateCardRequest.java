@@ -3,6 +3,8 @@ package com.example.bankcards.dto.request;
 import com.example.bankcards.entity.enums.CardStatus;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -20,4 +22,9 @@ public class UpdateCardRequest {
     @Schema(description = "Баланс карты", example = "100.00")
     @DecimalMin(value = "0.0", message = "Баланс не может быть отрицательным")
     private BigDecimal balance;
+
+    @Schema(description = "Количество слотов баланса для горячей карты, 0 - обычная карта", example = "16")
+    @Min(value = 0, message = "Количество слотов не может быть отрицательным")
+    @Max(value = 64, message = "Количество слотов не может быть больше 64")
+    private Integer balanceSlots;
 }
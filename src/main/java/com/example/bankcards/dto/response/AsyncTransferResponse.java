@@ -0,0 +1,37 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.entity.enums.TransferSubmissionStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsyncTransferResponse {
+
+    @Schema(description = "Идентификатор принятого перевода для запроса результата")
+    private Long submissionId;
+
+    @Schema(description = "Состояние исполнения")
+    private TransferSubmissionStatus status;
+
+    @Schema(description = "Выполненный перевод")
+    private CardTransferResponse transfer;
+
+    @Schema(description = "Причина отказа")
+    private String error;
+
+    @Schema(description = "Время приёма перевода")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Время исполнения перевода")
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.dto.enums.BatchTransferItemStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferItemResponse {
+
+    @Schema(description = "Порядковый номер перевода в пакете, начиная с 0")
+    private int index;
+
+    @Schema(description = "Результат выполнения перевода")
+    private BatchTransferItemStatus status;
+
+    @Schema(description = "Выполненный перевод")
+    private CardTransferResponse transfer;
+
+    @Schema(description = "Причина отказа")
+    private String error;
+}
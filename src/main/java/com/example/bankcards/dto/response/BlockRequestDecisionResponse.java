@@ -0,0 +1,26 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.dto.enums.BlockRequestDecision;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockRequestDecisionResponse {
+
+    @Schema(description = "Принятое решение")
+    private BlockRequestDecision decision;
+
+    @Schema(description = "Количество переданных различных id карт")
+    private int requestedCount;
+
+    @Schema(description = "Количество карт, статус которых изменён; остальные не ожидали блокировки или отсутствуют")
+    private int updatedCount;
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.dto.enums.BatchTransferMode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardBatchTransferResponse {
+
+    @Schema(description = "Режим выполнения пакета")
+    private BatchTransferMode mode;
+
+    @Schema(description = "Количество выполненных переводов")
+    private int completedCount;
+
+    @Schema(description = "Количество отклонённых переводов")
+    private int failedCount;
+
+    @Schema(description = "Результаты по каждому переводу в порядке запроса")
+    private List<BatchTransferItemResponse> items;
+}
@@ -0,0 +1,34 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardExpirationResponse {
+
+    @Schema(description = "Количество карт, переведённых в EXPIRED")
+    private long expiredCount;
+
+    @Schema(description = "Количество выполненных пачек")
+    private int chunkCount;
+
+    @Schema(description = "Просроченные ACTIVE карты, пропущенные из-за блокировки переводами; попадут в следующий запуск")
+    private long remainingCount;
+
+    @Schema(description = "Длительность прохода в миллисекундах")
+    private long durationMillis;
+
+    @Schema(description = "Скорость перевода карт в EXPIRED, строк в секунду")
+    private long rowsPerSecond;
+
+    @Schema(description = "Самая долгая пачка в миллисекундах: верхняя граница удержания блокировок строк карт")
+    private long maxChunkMillis;
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardImportErrorResponse {
+
+    @Schema(description = "Номер строки в загруженном файле, начиная с 1")
+    private long line;
+
+    @Schema(description = "Причина, по которой карта не создана")
+    private String error;
+}
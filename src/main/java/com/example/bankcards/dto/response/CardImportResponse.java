@@ -0,0 +1,33 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardImportResponse {
+
+    @Schema(description = "Количество обработанных строк с данными")
+    private long totalRows;
+
+    @Schema(description = "Количество созданных карт")
+    private long importedCount;
+
+    @Schema(description = "Количество строк с ошибками")
+    private long failedCount;
+
+    @Schema(description = "Время импорта в миллисекундах")
+    private long durationMillis;
+
+    @Schema(description = "Ошибки по строкам (не больше первых 1000)")
+    private List<CardImportErrorResponse> errors;
+}
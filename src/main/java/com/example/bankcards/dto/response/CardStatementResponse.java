@@ -0,0 +1,43 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardStatementResponse {
+
+    @Schema(description = "Уникальный идентификатор карты")
+    private Long cardId;
+
+    @Schema(description = "Начало периода выписки (включительно)")
+    private LocalDate from;
+
+    @Schema(description = "Конец периода выписки (включительно)")
+    private LocalDate to;
+
+    @Schema(description = "Баланс на начало периода")
+    private BigDecimal openingBalance;
+
+    @Schema(description = "Баланс на конец периода")
+    private BigDecimal closingBalance;
+
+    @Schema(description = "Сумма зачислений за период")
+    private BigDecimal totalIn;
+
+    @Schema(description = "Сумма списаний за период")
+    private BigDecimal totalOut;
+
+    @Schema(description = "Количество переводов за период")
+    private Integer transferCount;
+}
@@ -32,7 +32,7 @@ public class CardTransferResponse {
     @Schema(description = "Баланс карты отправителя")
     private BigDecimal fromCardNewBalance;
 
-    @Schema(description = "Баланс карты получателя")
+    @Schema(description = "Баланс карты получателя; отсутствует для зачисления на горячую карту", nullable = true)
     private BigDecimal toCardNewBalance;
 
     @Schema(description = "Сообщение при переводе")
@@ -0,0 +1,30 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    @Schema(description = "Элементы страницы")
+    private List<T> content;
+
+    @Schema(description = "Количество элементов на странице")
+    private int size;
+
+    @Schema(description = "Есть ли следующая страница")
+    private boolean hasNext;
+
+    @Schema(description = "Курсор следующей страницы, передаётся в параметре after; null - страница последняя")
+    private String nextCursor;
+}
@@ -8,6 +8,8 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
@@ -28,11 +30,15 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "cards")
+@Table(name = "cards", indexes = {
+        @Index(name = "idx_cards_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_cards_last_four_digits_id", columnList = "last_four_digits, id")
+})
 public class Card {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cards_id_seq")
+    @SequenceGenerator(name = "cards_id_seq", sequenceName = "cards_id_seq", allocationSize = 50)
     @Comment("Уникальный идентификатор карты")
     private Long id;
 
@@ -40,6 +46,10 @@ public class Card {
     @Column(name = "encrypted_card_number", nullable = false, unique = true, length = 200)
     private String encryptedCardNumber;
 
+    @Comment("HMAC-SHA256 отпечаток номера карты для поиска дубликатов")
+    @Column(name = "card_fingerprint", unique = true, length = 64)
+    private String cardFingerprint;
+
     @Comment("Последние 4 цифры карты")
     @Column(name = "last_four_digits", nullable = false, length = 4)
     private String lastFourDigits;
@@ -61,6 +71,10 @@ public class Card {
     @Column(name = "balance", nullable = false, precision = 15, scale = 2)
     private BigDecimal balance;
 
+    @Comment("Количество слотов баланса горячей карты, null - обычная карта")
+    @Column(name = "balance_slots")
+    private Integer balanceSlots;
+
     @Transient
     private transient String fullCardNumber;
 }
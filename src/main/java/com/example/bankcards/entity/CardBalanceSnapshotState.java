@@ -0,0 +1,29 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "card_balance_snapshot_state")
+public class CardBalanceSnapshotState {
+
+    @Id
+    private Short id;
+
+    @Comment("Последний день, за который посчитаны снимки балансов карт")
+    @Column(name = "last_snapshot_date")
+    private LocalDate lastSnapshotDate;
+}
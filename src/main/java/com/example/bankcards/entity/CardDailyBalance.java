@@ -0,0 +1,39 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+
+import java.math.BigDecimal;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "card_daily_balances")
+public class CardDailyBalance {
+
+    @EmbeddedId
+    private CardDailyBalanceId id;
+
+    @Comment("Сумма зачислений за день")
+    @Column(name = "total_in", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalIn;
+
+    @Comment("Сумма списаний за день")
+    @Column(name = "total_out", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalOut;
+
+    @Comment("Количество переводов по карте за день")
+    @Column(name = "transfer_count", nullable = false)
+    private Integer transferCount;
+}
@@ -5,6 +5,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,11 +23,16 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "transfers")
+@Table(name = "transfers", indexes = {
+        @Index(name = "idx_transfers_from_card_id_created_at", columnList = "from_card_id, created_at"),
+        @Index(name = "idx_transfers_to_card_id_created_at", columnList = "to_card_id, created_at"),
+        @Index(name = "idx_transfers_created_at_id", columnList = "created_at, id")
+})
 public class Transfer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfers_id_seq")
+    @SequenceGenerator(name = "transfers_id_seq", sequenceName = "transfers_id_seq", allocationSize = 50)
     @Comment("Уникальный идентификатор перевода средств")
     private Long id;
 
@@ -45,8 +52,8 @@ public class Transfer {
     @Column(name = "from_card_new_balance", nullable = false, precision = 15, scale = 2)
     private BigDecimal fromCardNewBalance;
 
-    @Comment("Новый баланс целевой карты")
-    @Column(name = "to_card_new_balance", nullable = false, precision = 15, scale = 2)
+    @Comment("Новый баланс целевой карты, null - зачисление в слот горячей карты")
+    @Column(name = "to_card_new_balance", precision = 15, scale = 2)
     private BigDecimal toCardNewBalance;
 
     @Comment("Сообщение при переводе")
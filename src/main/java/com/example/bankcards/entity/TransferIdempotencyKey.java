@@ -0,0 +1,39 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "transfer_idempotency_keys", indexes = {
+        @Index(name = "idx_transfer_idempotency_keys_created_at", columnList = "created_at")
+})
+public class TransferIdempotencyKey {
+
+    @EmbeddedId
+    private TransferIdempotencyKeyId id;
+
+    @Comment("SHA-256 тела запроса: повтор ключа с другим переводом отклоняется")
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Comment("Выполненный перевод; пусто, пока транзакция перевода не завершена")
+    @Column(name = "transfer_id")
+    private Long transferId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,78 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.entity.enums.TransferSubmissionStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Comment;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "transfer_submissions")
+public class TransferSubmission {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_submissions_id_seq")
+    @SequenceGenerator(name = "transfer_submissions_id_seq", sequenceName = "transfer_submissions_id_seq", allocationSize = 50)
+    @Comment("Уникальный идентификатор принятого перевода")
+    private Long id;
+
+    @Comment("ID пользователя, отправившего перевод")
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Comment("ID изначальной карты")
+    @Column(name = "from_card_id", nullable = false)
+    private Long fromCardId;
+
+    @Comment("ID целевой для перевода карты")
+    @Column(name = "to_card_id", nullable = false)
+    private Long toCardId;
+
+    @Comment("Сумма перевода")
+    @Column(name = "amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Comment("Сообщение при переводе")
+    @Column(name = "description")
+    private String description;
+
+    @Comment("Состояние исполнения")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private TransferSubmissionStatus status;
+
+    @Comment("Выполненный перевод")
+    @Column(name = "transfer_id")
+    private Long transferId;
+
+    @Comment("Причина отказа")
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -1,8 +1,20 @@
 package com.example.bankcards.entity.enums;
 
+import java.time.LocalDate;
+
 public enum CardStatus {
     ACTIVE,
     REQUEST_FOR_BLOCKING,
     BLOCKED,
-    EXPIRED
+    EXPIRED;
+
+    /**
+     * Статус новой карты: карта с прошедшим сроком действия создаётся сразу просроченной.
+     */
+    public static CardStatus forExpirationDate(LocalDate expirationDate) {
+        if (expirationDate.isBefore(LocalDate.now())) {
+            return EXPIRED;
+        }
+        return ACTIVE;
+    }
 }
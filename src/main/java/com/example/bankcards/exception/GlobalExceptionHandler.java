@@ -3,14 +3,17 @@ package com.example.bankcards.exception;
 import com.example.bankcards.dto.response.HttpErrorResponse;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestControllerAdvice
@@ -66,6 +69,46 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(TransferConflictException.class)
+    public ResponseEntity<HttpErrorResponse> handlerTransferConflictException(TransferConflictException e) {
+        return buildErrorResponse(
+                HttpStatus.CONFLICT,
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                e.getMessage(),
+                e
+        );
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<HttpErrorResponse> handlerIdempotencyKeyMismatchException(IdempotencyKeyMismatchException e) {
+        return buildErrorResponse(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                HttpStatus.UNPROCESSABLE_ENTITY.getReasonPhrase(),
+                e.getMessage(),
+                e
+        );
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<HttpErrorResponse> handlerDatabaseUnavailableException(RuntimeException e) {
+        return buildErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                "База данных перегружена или недоступна, повторите запрос позже",
+                e
+        );
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<HttpErrorResponse> handlerRejectedExecutionException(RejectedExecutionException e) {
+        return buildErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                e.getMessage(),
+                e
+        );
+    }
+
     private ResponseEntity<HttpErrorResponse> buildErrorResponse(
             HttpStatus status, String type, String message, Exception e) {
         log.error("{}: {} - {}", type, e.getClass().getName(),message);
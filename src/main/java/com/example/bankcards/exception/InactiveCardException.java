@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class InactiveCardException extends IllegalArgumentException {
+    public InactiveCardException(String message) {
+        super(message);
+    }
+}
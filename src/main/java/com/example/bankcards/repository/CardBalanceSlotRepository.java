@@ -0,0 +1,27 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardBalanceSlot;
+import com.example.bankcards.entity.CardBalanceSlotId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface CardBalanceSlotRepository extends JpaRepository<CardBalanceSlot, CardBalanceSlotId> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CardBalanceSlot s WHERE s.id.cardId = :cardId ORDER BY s.id.slot")
+    List<CardBalanceSlot> findAllByCardIdWithLock(@Param("cardId") Long cardId);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM CardBalanceSlot s WHERE s.id.cardId = :cardId")
+    BigDecimal sumBalanceByCardId(@Param("cardId") Long cardId);
+
+    @Modifying
+    @Query("UPDATE CardBalanceSlot s SET s.balance = s.balance + :amount WHERE s.id.cardId = :cardId AND s.id.slot = :slot")
+    int addToSlot(@Param("cardId") Long cardId, @Param("slot") Integer slot, @Param("amount") BigDecimal amount);
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardDailyBalance;
+import com.example.bankcards.entity.CardDailyBalanceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface CardDailyBalanceRepository extends JpaRepository<CardDailyBalance, CardDailyBalanceId> {
+
+    @Query("""
+            SELECT b FROM CardDailyBalance b
+            WHERE b.id.cardId = :cardId AND b.id.balanceDate BETWEEN :from AND :to
+            ORDER BY b.id.balanceDate
+            """)
+    List<CardDailyBalance> findAllBetween(@Param("cardId") Long cardId, @Param("from") LocalDate from,
+                                          @Param("to") LocalDate to);
+
+    @Query("""
+            SELECT COALESCE(SUM(b.totalIn - b.totalOut), 0) FROM CardDailyBalance b
+            WHERE b.id.cardId = :cardId AND b.id.balanceDate BETWEEN :from AND :to
+            """)
+    BigDecimal sumNetBetween(@Param("cardId") Long cardId, @Param("from") LocalDate from,
+                             @Param("to") LocalDate to);
+}
@@ -1,27 +1,87 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
-    boolean existsByEncryptedCardNumber(String encryptedCardNumber);
+    boolean existsByCardFingerprint(String cardFingerprint);
+
+    @Query("SELECT c.cardFingerprint FROM Card c WHERE c.cardFingerprint IN :fingerprints")
+    List<String> findExistingFingerprints(@Param("fingerprints") Collection<String> fingerprints);
+
+    List<Card> findAllByCardFingerprintIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 
     Page<Card> findAllByClientId(Long userId, PageRequest pageRequest);
 
     Page<Card> findAllByLastFourDigits(String lastFourDigits, Pageable pageable);
 
+    Slice<Card> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Slice<Card> findAllByClientIdAndIdGreaterThanOrderByIdAsc(Long clientId, Long id, Pageable pageable);
+
+    Slice<Card> findAllByLastFourDigitsAndIdGreaterThanOrderByIdAsc(String lastFourDigits, Long id, Pageable pageable);
+
+    Slice<Card> findAllByStatusAndIdGreaterThanOrderByIdAsc(CardStatus status, Long id, Pageable pageable);
+
+    /**
+     * Решение по пачке запросов на блокировку одним запросом. Строки блокируются по возрастанию id,
+     * как и в переводах, поэтому массовое обновление не взаимоблокируется с ними.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE cards SET status = :status
+            WHERE id IN (
+                SELECT id FROM cards
+                WHERE id IN (:ids) AND status = 'REQUEST_FOR_BLOCKING'
+                ORDER BY id
+                FOR UPDATE
+            )
+            """, nativeQuery = true)
+    int resolveBlockRequests(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT c FROM Card c WHERE c.id = :id")
     Optional<Card> findByIdWithLock(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Card c WHERE c.id IN :ids ORDER BY c.id")
+    List<Card> findAllByIdInWithLock(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Пачка просроченных активных карт (только PostgreSQL). Карты, заблокированные переводами,
+     * пропускаются через SKIP LOCKED и попадут в следующий запуск, поэтому переводы не ждут эту задачу.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE cards SET status = 'EXPIRED'
+            WHERE id IN (
+                SELECT id FROM cards
+                WHERE status = 'ACTIVE' AND expiration_date < :today
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int expireActiveCards(@Param("today") LocalDate today, @Param("limit") int limit);
+
+    long countByStatusAndExpirationDateBefore(CardStatus status, LocalDate date);
+
+    @Query("SELECT c.id FROM Card c WHERE c.id IN :ids AND c.balanceSlots IS NOT NULL")
+    List<Long> findStripedIdsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,37 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import com.example.bankcards.entity.TransferIdempotencyKeyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface TransferIdempotencyKeyRepository extends JpaRepository<TransferIdempotencyKey, TransferIdempotencyKeyId> {
+
+    /**
+     * Прямой INSERT вместо save: save с заданным id делает merge и молча обновил бы чужую строку.
+     * Дубль ключа ждёт завершения транзакции, вставившей его первой, и падает на первичном ключе.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO transfer_idempotency_keys (user_id, idempotency_key, request_hash, created_at)
+            VALUES (:userId, :idempotencyKey, :requestHash, :createdAt)
+            """, nativeQuery = true)
+    void insert(@Param("userId") Long userId, @Param("idempotencyKey") String idempotencyKey,
+                @Param("requestHash") String requestHash, @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Сброс перед UPDATE обязателен: авто-flush Hibernate затрагивает только таблицу ключей,
+     * а строка перевода, на которую ссылается внешний ключ, ещё в контексте персистентности.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TransferIdempotencyKey k SET k.transferId = :transferId WHERE k.id = :id")
+    void complete(@Param("id") TransferIdempotencyKeyId id, @Param("transferId") Long transferId);
+
+    @Modifying
+    @Query("DELETE FROM TransferIdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
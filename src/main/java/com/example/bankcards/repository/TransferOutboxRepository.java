@@ -0,0 +1,26 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransferOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TransferOutboxRepository extends JpaRepository<TransferOutboxEvent, Long> {
+
+    /**
+     * Очередная пачка событий (только PostgreSQL). Строки, взятые другим экземпляром ретранслятора,
+     * пропускаются через SKIP LOCKED, поэтому несколько экземпляров разбирают outbox параллельно.
+     */
+    @Query(value = """
+            SELECT * FROM transfer_outbox
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<TransferOutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    Optional<TransferOutboxEvent> findFirstByOrderByIdAsc();
+}
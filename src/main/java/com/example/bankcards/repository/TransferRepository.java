@@ -1,7 +1,107 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Transfer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TransferRepository extends JpaRepository<Transfer, Long> {
+
+    @Query("""
+            SELECT t FROM Transfer t
+            WHERE t.fromCardId = :cardId
+              AND t.createdAt >= :from
+              AND (t.createdAt < :beforeCreatedAt OR (t.createdAt = :beforeCreatedAt AND t.id < :beforeId))
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    Slice<Transfer> findOutgoingBefore(
+            @Param("cardId") Long cardId,
+            @Param("from") LocalDateTime from,
+            @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    @Query("""
+            SELECT t FROM Transfer t
+            WHERE t.toCardId = :cardId
+              AND t.createdAt >= :from
+              AND (t.createdAt < :beforeCreatedAt OR (t.createdAt = :beforeCreatedAt AND t.id < :beforeId))
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    Slice<Transfer> findIncomingBefore(
+            @Param("cardId") Long cardId,
+            @Param("from") LocalDateTime from,
+            @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    @Query("""
+            SELECT t FROM Transfer t
+            WHERE (t.fromCardId = :cardId OR t.toCardId = :cardId)
+              AND t.createdAt >= :from
+              AND (t.createdAt < :beforeCreatedAt OR (t.createdAt = :beforeCreatedAt AND t.id < :beforeId))
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    Slice<Transfer> findAllBefore(
+            @Param("cardId") Long cardId,
+            @Param("from") LocalDateTime from,
+            @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    /**
+     * Потоковое чтение для выгрузки и снимков балансов: строки приходят с сервера порциями по fetch size
+     * (для PostgreSQL только внутри транзакции), поток нужно закрыть.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t FROM Transfer t WHERE t.createdAt >= :from AND t.createdAt < :to ORDER BY t.createdAt, t.id")
+    Stream<Transfer> streamAllByCreatedAtRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("""
+            SELECT COALESCE(SUM(t.amount), 0) FROM Transfer t
+            WHERE t.toCardId = :cardId AND t.createdAt >= :from AND t.createdAt < :to
+            """)
+    BigDecimal sumIncomingByCreatedAtRange(
+            @Param("cardId") Long cardId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    @Query("""
+            SELECT COALESCE(SUM(t.amount), 0) FROM Transfer t
+            WHERE t.fromCardId = :cardId AND t.createdAt >= :from AND t.createdAt < :to
+            """)
+    BigDecimal sumOutgoingByCreatedAtRange(
+            @Param("cardId") Long cardId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    @Query("""
+            SELECT COUNT(t) FROM Transfer t
+            WHERE (t.fromCardId = :cardId OR t.toCardId = :cardId)
+              AND t.createdAt >= :from AND t.createdAt < :to
+            """)
+    long countByCardIdAndCreatedAtRange(
+            @Param("cardId") Long cardId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    @Query("SELECT MIN(t.createdAt) FROM Transfer t")
+    Optional<LocalDateTime> findMinCreatedAt();
 }
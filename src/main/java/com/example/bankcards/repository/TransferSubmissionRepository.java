@@ -0,0 +1,29 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransferSubmission;
+import com.example.bankcards.entity.enums.TransferSubmissionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TransferSubmissionRepository extends JpaRepository<TransferSubmission, Long> {
+
+    /**
+     * Блокировка строк защищает от повторного применения, если одна и та же заявка попала в очередь дважды
+     * (восстановление после перезапуска): условие по статусу перепроверяется после ожидания блокировки.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TransferSubmission s WHERE s.id IN :ids AND s.status = :status ORDER BY s.id")
+    List<TransferSubmission> findAllByIdInAndStatusWithLock(@Param("ids") Collection<Long> ids,
+                                                            @Param("status") TransferSubmissionStatus status);
+
+    Slice<TransferSubmission> findAllByStatusAndIdGreaterThanOrderByIdAsc(TransferSubmissionStatus status, Long id,
+                                                                          Pageable pageable);
+}
@@ -1,6 +1,8 @@
 package com.example.bankcards.security;
 
 import com.example.bankcards.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,6 +20,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
+import static com.example.bankcards.constant.MetricConstant.JWT_FILTER;
+import static com.example.bankcards.constant.MetricConstant.PRINCIPAL_TAG;
+
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -25,6 +30,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     public static final String HEADER_NAME = "Authorization";
     private final JwtService jwtService;
     private final UserService userService;
+    private final PrincipalCache principalCache;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -39,28 +46,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        var jwt = authHeader.substring(BEARER_PREFIX.length());
-        var username = jwtService.extractUserName(jwt);
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        if (StringUtils.isNotEmpty(username) && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService
-                    .userDetailsService()
-                    .loadUserByUsername(username);
+        var jwt = authHeader.substring(BEARER_PREFIX.length());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Подпись и срок действия проверяются при разборе, повторно токен не разбирается
+        JwtClaims claims;
+        try {
+            claims = jwtService.parseToken(jwt);
+        } catch (RuntimeException e) {
+            sample.stop(meterRegistry.timer(JWT_FILTER, PRINCIPAL_TAG, "rejected"));
+            throw e;
+        }
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                SecurityContext context = SecurityContextHolder.createEmptyContext();
+        if (StringUtils.isNotEmpty(claims.subject())) {
+            UserDetails userDetails = resolvePrincipal(claims);
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
 
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities()
+            );
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                context.setAuthentication(authToken);
-                SecurityContextHolder.setContext(context);
-            }
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            context.setAuthentication(authToken);
+            SecurityContextHolder.setContext(context);
         }
+        // Время до передачи запроса дальше по цепочке: разбор токена и, для старых токенов, загрузка пользователя
+        sample.stop(meterRegistry.timer(JWT_FILTER, PRINCIPAL_TAG, claims.hasPrincipalClaims() ? "claims" : "lookup"));
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UserDetails resolvePrincipal(JwtClaims claims) {
+        if (claims.hasPrincipalClaims()) {
+            return User.builder()
+                    .id(claims.id())
+                    .username(claims.subject())
+                    .role(claims.role())
+                    .build();
+        }
+
+        // Токены без id/role в claims по-прежнему сверяются с БД, но не чаще раза в TTL кеша
+        return principalCache.get(claims.subject(), username -> userService
+                .userDetailsService()
+                .loadUserByUsername(username));
+    }
+}
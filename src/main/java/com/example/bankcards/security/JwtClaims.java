@@ -0,0 +1,12 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.enums.Role;
+
+import java.util.Date;
+
+public record JwtClaims(String subject, Long id, Role role, Date expiration) {
+
+    public boolean hasPrincipalClaims() {
+        return id != null && role != null;
+    }
+}
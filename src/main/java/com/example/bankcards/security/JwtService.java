@@ -6,6 +6,8 @@ public interface JwtService {
 
     String extractUserName(String token);
 
+    JwtClaims parseToken(String token);
+
     String generateToken(UserDetails userDetails);
 
     boolean isTokenValid(String token, UserDetails userDetails);
@@ -0,0 +1,12 @@
+package com.example.bankcards.security;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.function.Function;
+
+public interface PrincipalCache {
+
+    UserDetails get(String username, Function<String, UserDetails> loader);
+
+    void evict(String username);
+}
@@ -1,76 +1,107 @@
 package com.example.bankcards.security.impl;
 
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.security.JwtClaims;
 import com.example.bankcards.security.JwtService;
 import com.example.bankcards.security.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import java.util.function.Function;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.example.bankcards.constant.MetricConstant.JWT_PARSE;
+import static com.example.bankcards.constant.MetricConstant.OUTCOME_TAG;
+
 @Service
 public class JwtServiceImpl implements JwtService {
 
+    public static final String ID_CLAIM = "id";
+    public static final String ROLE_CLAIM = "role";
+
     @Value("${token.signing.key}")
     private String jwtSigningKey;
 
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer validTokenTimer;
+
+    public JwtServiceImpl(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        validTokenTimer = meterRegistry.timer(JWT_PARSE, OUTCOME_TAG, "valid");
+    }
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSigningKey));
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     @Override
     public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).subject();
+    }
+
+    @Override
+    public JwtClaims parseToken(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+        } catch (ExpiredJwtException e) {
+            sample.stop(meterRegistry.timer(JWT_PARSE, OUTCOME_TAG, "expired"));
+            throw e;
+        } catch (RuntimeException e) {
+            sample.stop(meterRegistry.timer(JWT_PARSE, OUTCOME_TAG, "invalid"));
+            throw e;
+        }
+        sample.stop(validTokenTimer);
+
+        String role = claims.get(ROLE_CLAIM, String.class);
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get(ID_CLAIM, Long.class),
+                role != null ? Role.valueOf(role) : null,
+                claims.getExpiration()
+        );
     }
 
     @Override
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         if (userDetails instanceof User customUserDetails) {
-            claims.put("id", customUserDetails.getId());
-            claims.put("role", customUserDetails.getRole());
+            claims.put(ID_CLAIM, customUserDetails.getId());
+            claims.put(ROLE_CLAIM, customUserDetails.getRole());
         }
         return generateToken(claims, userDetails);
     }
 
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolvers) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolvers.apply(claims);
+        JwtClaims claims = parseToken(token);
+        return claims.subject().equals(userDetails.getUsername()) && claims.expiration().after(new Date());
     }
 
     private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts.builder().setClaims(extraClaims).setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 100000 * 60 * 24))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256).compact();
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(getSigningKey()).build().parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSigningKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return Jwts.builder().claims(extraClaims).subject(userDetails.getUsername())
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + 100000 * 60 * 24))
+                .signWith(signingKey, Jwts.SIG.HS256).compact();
     }
 }
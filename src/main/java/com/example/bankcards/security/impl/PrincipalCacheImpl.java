@@ -0,0 +1,37 @@
+package com.example.bankcards.security.impl;
+
+import com.example.bankcards.security.PrincipalCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class PrincipalCacheImpl implements PrincipalCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalCacheImpl(
+            @Value("${token.principal-cache.maximum-size:10000}") long maximumSize,
+            @Value("${token.principal-cache.ttl:5m}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, loader);
+    }
+
+    @Override
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.request.CardTransferRequest;
+import com.example.bankcards.dto.response.AsyncTransferResponse;
+
+import java.util.List;
+
+public interface AsyncTransferService {
+
+    AsyncTransferResponse submit(CardTransferRequest transferRequest);
+
+    AsyncTransferResponse getSubmission(Long submissionId);
+
+    int applyBatch(List<Long> submissionIds);
+}
@@ -0,0 +1,17 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.security.User;
+
+import java.math.BigDecimal;
+
+/**
+ * Общие правила для синхронных и асинхронных операций с картами: кто может работать с картой
+ * и можно ли перевести сумму между двумя картами.
+ */
+public interface CardAccessService {
+
+    void checkAccess(User currentUser, Long userId);
+
+    void checkTransfer(Card fromCard, Card toCard, BigDecimal amount, BigDecimal fromCardBalance);
+}
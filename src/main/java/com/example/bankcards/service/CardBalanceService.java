@@ -0,0 +1,16 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+
+import java.math.BigDecimal;
+
+public interface CardBalanceService {
+
+    BigDecimal getTotalBalance(Card card);
+
+    void collectSlots(Card card);
+
+    boolean creditSlot(Card card, Long sourceCardId, BigDecimal amount);
+
+    void resizeSlots(Card card, int slots);
+}
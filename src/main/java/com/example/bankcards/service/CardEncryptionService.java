@@ -5,4 +5,6 @@ public interface CardEncryptionService {
     String encrypt(String cardNumber);
 
     String decrypt(String encryptedCardNumber);
+
+    String fingerprint(String cardNumber);
 }
@@ -0,0 +1,8 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.CardExpirationResponse;
+
+public interface CardExpirationService {
+
+    CardExpirationResponse expireCards();
+}
@@ -0,0 +1,6 @@
+package com.example.bankcards.service;
+
+public interface CardFingerprintBackfillService {
+
+    int backfill();
+}
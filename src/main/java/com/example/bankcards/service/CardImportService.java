@@ -0,0 +1,11 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.enums.CardImportFormat;
+import com.example.bankcards.dto.response.CardImportResponse;
+
+import java.io.InputStream;
+
+public interface CardImportService {
+
+    CardImportResponse importCards(CardImportFormat format, InputStream inputStream);
+}
@@ -1,14 +1,22 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.enums.TransferDirection;
+import com.example.bankcards.dto.request.BlockRequestDecisionRequest;
+import com.example.bankcards.dto.request.CardBatchTransferRequest;
 import com.example.bankcards.dto.request.CardTransferRequest;
 import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.request.UpdateCardRequest;
+import com.example.bankcards.dto.response.BlockRequestDecisionResponse;
+import com.example.bankcards.dto.response.CardBatchTransferResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CardStatementResponse;
 import com.example.bankcards.dto.response.CardTransferResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 public interface CardService{
 
@@ -20,13 +28,32 @@ public interface CardService{
 
     Page<CardResponse> getAllCardsByLastFourDigits(String cardNumber, PageRequest pageRequest);
 
+    CursorPageResponse<CardResponse> getAllCardsAfter(String after, int size);
+
+    CursorPageResponse<CardResponse> getAllCardsByUserIdAfter(Long userId, String after, int size);
+
+    CursorPageResponse<CardResponse> getAllCardsByLastFourDigitsAfter(String cardNumber, String after, int size);
+
     CardResponse updateCard(Long cardId, UpdateCardRequest request);
 
     BigDecimal getCardBalance(Long cardId);
 
+    CardStatementResponse getCardStatement(Long cardId, LocalDate from, LocalDate to);
+
     CardResponse getCard(Long cardId);
 
     CardTransferResponse transferBetweenCards(CardTransferRequest transferRequest);
 
+    CardTransferResponse transferBetweenCards(CardTransferRequest transferRequest, String idempotencyKey);
+
+    CardBatchTransferResponse transferBatch(CardBatchTransferRequest batchRequest);
+
+    CursorPageResponse<CardTransferResponse> getTransferHistory(Long cardId, TransferDirection direction,
+                                                                LocalDate from, LocalDate to, String after, int size);
+
     CardResponse blockedCard(Long cardId);
+
+    CursorPageResponse<CardResponse> getBlockRequestsAfter(String after, int size);
+
+    BlockRequestDecisionResponse resolveBlockRequests(BlockRequestDecisionRequest request);
 }
@@ -0,0 +1,18 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.CardResponse;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+public interface CardSnapshotCache {
+
+    record CardSnapshot(CardResponse card, BigDecimal totalBalance) {
+    }
+
+    CardSnapshot get(Long cardId);
+
+    void evictAfterCommit(Collection<Long> cardIds);
+
+    void evictAll();
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.CardStatementResponse;
+import com.example.bankcards.entity.Card;
+
+import java.time.LocalDate;
+
+public interface CardStatementService {
+
+    int snapshotClosedDays();
+
+    CardStatementResponse getStatement(Card card, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.event.TransferEvent;
+
+import java.util.List;
+
+/**
+ * Получатель событий о переводах. Исключение из publish оставляет пачку в outbox до следующего запуска.
+ */
+public interface TransferEventSink {
+
+    void publish(List<TransferEvent> events);
+}
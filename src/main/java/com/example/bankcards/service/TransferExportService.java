@@ -0,0 +1,11 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.enums.TransferExportFormat;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface TransferExportService {
+
+    long export(TransferExportFormat format, LocalDate from, LocalDate to, OutputStream outputStream);
+}
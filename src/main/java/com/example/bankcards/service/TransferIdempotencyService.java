@@ -0,0 +1,20 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.request.CardTransferRequest;
+import com.example.bankcards.dto.response.CardTransferResponse;
+
+import java.util.Optional;
+
+public interface TransferIdempotencyService {
+
+    Optional<CardTransferResponse> findCompleted(Long userId, String idempotencyKey, CardTransferRequest request);
+
+    /**
+     * false - ключ уже вставлен другим запросом; транзакцию после этого нужно откатить.
+     */
+    boolean reserve(Long userId, String idempotencyKey, CardTransferRequest request);
+
+    void complete(Long userId, String idempotencyKey, CardTransferRequest request, CardTransferResponse response);
+
+    int deleteExpired();
+}
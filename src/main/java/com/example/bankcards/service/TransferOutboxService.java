@@ -0,0 +1,12 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Transfer;
+
+import java.util.List;
+
+public interface TransferOutboxService {
+
+    void append(List<Transfer> transfers);
+
+    int relay();
+}
@@ -0,0 +1,404 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.request.CardTransferRequest;
+import com.example.bankcards.dto.response.AsyncTransferResponse;
+import com.example.bankcards.dto.response.CardTransferResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.TransferSubmission;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.TransferSubmissionRepository;
+import com.example.bankcards.security.User;
+import com.example.bankcards.service.AsyncTransferService;
+import com.example.bankcards.service.CardAccessService;
+import com.example.bankcards.service.CardBalanceService;
+import com.example.bankcards.service.CardSnapshotCache;
+import com.example.bankcards.service.TransferOutboxService;
+import com.example.bankcards.service.UserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import static com.example.bankcards.constant.MetricConstant.CARD_TRANSFER_ASYNC_BATCH;
+import static com.example.bankcards.constant.MetricConstant.CARD_TRANSFER_ASYNC_BATCH_SIZE;
+import static com.example.bankcards.constant.MetricConstant.CARD_TRANSFER_ASYNC_QUEUE;
+import static com.example.bankcards.entity.enums.TransferSubmissionStatus.COMPLETED;
+import static com.example.bankcards.entity.enums.TransferSubmissionStatus.FAILED;
+import static com.example.bankcards.entity.enums.TransferSubmissionStatus.PENDING;
+
+/**
+ * Асинхронные переводы: заявка сохраняется со статусом PENDING и попадает в очередь партиции по карте
+ * отправителя. У каждой партиции один поток-исполнитель, поэтому списания с одной карты не конкурируют
+ * друг с другом за блокировку строки, а накопившиеся заявки применяются пачкой в одной транзакции.
+ * <p>
+ * Зачисление на карту из чужой партиции по-прежнему берёт блокировку строки: карты пачки блокируются
+ * по возрастанию id, как и в синхронном переводе.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncTransferServiceImpl implements AsyncTransferService {
+
+    private static final int RECOVERY_PAGE_SIZE = 1000;
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final TransferSubmissionRepository transferSubmissionRepository;
+
+    private final CardRepository cardRepository;
+
+    private final TransferRepository transferRepository;
+
+    private final TransferMapper transferMapper;
+
+    private final UserService userService;
+
+    private final CardAccessService cardAccessService;
+
+    private final CardBalanceService cardBalanceService;
+
+    private final CardSnapshotCache cardSnapshotCache;
+
+    private final TransferOutboxService transferOutboxService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${card.transfer.async.enabled:true}")
+    private boolean enabled;
+
+    @Value("${card.transfer.async.partitions:4}")
+    private int partitions;
+
+    @Value("${card.transfer.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${card.transfer.async.batch-size:200}")
+    private int batchSize;
+
+    private final List<BlockingQueue<Long>> queues = new ArrayList<>();
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    private Timer batchTimer;
+
+    private DistributionSummary batchSizeSummary;
+
+    @PostConstruct
+    void createQueues() {
+        for (int i = 0; i < partitions; i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+        batchTimer = meterRegistry.timer(CARD_TRANSFER_ASYNC_BATCH);
+        batchSizeSummary = meterRegistry.summary(CARD_TRANSFER_ASYNC_BATCH_SIZE);
+        Gauge.builder(CARD_TRANSFER_ASYNC_QUEUE, queues, list -> list.stream().mapToInt(Collection::size).sum())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorkers() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < partitions; i++) {
+            BlockingQueue<Long> queue = queues.get(i);
+            workers.add(Thread.ofPlatform()
+                    .name("transfer-partition-" + i)
+                    .start(() -> runPartition(queue)));
+        }
+        recoverPending();
+    }
+
+    @PreDestroy
+    void stopWorkers() throws InterruptedException {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            worker.join(5000);
+        }
+    }
+
+    @Override
+    public AsyncTransferResponse submit(CardTransferRequest transferRequest) {
+        if (!running) {
+            throw new RejectedExecutionException("Асинхронные переводы сейчас не принимаются");
+        }
+        User currentUser = userService.getCurrentUser();
+
+        Long fromCardId = transferRequest.getFromCardId();
+        Long toCardId = transferRequest.getToCardId();
+
+        if (fromCardId.equals(toCardId)) {
+            throw new IllegalArgumentException("Неверно указаны Id карт");
+        }
+
+        // Владелец карты не меняется, поэтому права проверяются при приёме заявки, а статус и баланс - при исполнении
+        Map<Long, Card> cards = new HashMap<>();
+        cardRepository.findAllById(List.of(fromCardId, toCardId)).forEach(card -> cards.put(card.getId(), card));
+        cardAccessService.checkAccess(currentUser, getCard(cards, fromCardId).getClientId());
+        cardAccessService.checkAccess(currentUser, getCard(cards, toCardId).getClientId());
+
+        BlockingQueue<Long> queue = queueOf(fromCardId);
+        if (queue.remainingCapacity() == 0) {
+            throw new RejectedExecutionException("Очередь переводов по карте переполнена, повторите запрос позже");
+        }
+
+        TransferSubmission submission = transferSubmissionRepository.save(TransferSubmission.builder()
+                .userId(currentUser.getId())
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(transferRequest.getAmount())
+                .description(transferRequest.getDescription())
+                .status(PENDING)
+                .build());
+
+        if (!queue.offer(submission.getId())) {
+            markFailed(List.of(submission.getId()), "Очередь переводов по карте переполнена");
+            throw new RejectedExecutionException("Очередь переводов по карте переполнена, повторите запрос позже");
+        }
+
+        log.debug("Перевод принят на исполнение: заявка ID {}, карта ID {}", submission.getId(), fromCardId);
+
+        return toResponse(submission, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AsyncTransferResponse getSubmission(Long submissionId) {
+        TransferSubmission submission = transferSubmissionRepository.findById(submissionId).orElseThrow(
+                () -> new EntityNotFoundException("Перевод с номером заявки " + submissionId + " отсутствует"));
+
+        cardAccessService.checkAccess(userService.getCurrentUser(), submission.getUserId());
+
+        CardTransferResponse transfer = submission.getTransferId() == null ? null
+                : transferRepository.findById(submission.getTransferId())
+                        .map(transferMapper::toCardTransferResponse)
+                        .orElse(null);
+
+        return toResponse(submission, transfer);
+    }
+
+    @Override
+    public int applyBatch(List<Long> submissionIds) {
+        Integer completed = batchTimer.record(() -> transactionTemplate.execute(status -> doApplyBatch(submissionIds)));
+        batchSizeSummary.record(submissionIds.size());
+        return completed == null ? 0 : completed;
+    }
+
+    private int doApplyBatch(List<Long> submissionIds) {
+        List<TransferSubmission> submissions =
+                transferSubmissionRepository.findAllByIdInAndStatusWithLock(submissionIds, PENDING);
+        if (submissions.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Card> cards = lockCards(submissions);
+        cards.values().forEach(cardBalanceService::collectSlots);
+        cardSnapshotCache.evictAfterCommit(cards.keySet());
+
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        cards.values().forEach(card -> balances.put(card.getId(), card.getBalance()));
+
+        LocalDateTime processedAt = LocalDateTime.now();
+        List<TransferSubmission> applied = new ArrayList<>(submissions.size());
+        List<Transfer> pendingTransfers = new ArrayList<>(submissions.size());
+
+        for (TransferSubmission submission : submissions) {
+            try {
+                Card fromCard = getCard(cards, submission.getFromCardId());
+                Card toCard = getCard(cards, submission.getToCardId());
+                BigDecimal amount = submission.getAmount();
+
+                cardAccessService.checkTransfer(fromCard, toCard, amount, balances.get(fromCard.getId()));
+
+                pendingTransfers.add(Transfer.builder()
+                        .fromCardId(fromCard.getId())
+                        .toCardId(toCard.getId())
+                        .amount(amount)
+                        .fromCardNewBalance(balances.merge(fromCard.getId(), amount, BigDecimal::subtract))
+                        .toCardNewBalance(balances.merge(toCard.getId(), amount, BigDecimal::add))
+                        .description(submission.getDescription())
+                        .build()
+                );
+                applied.add(submission);
+            } catch (IllegalArgumentException | EntityNotFoundException e) {
+                submission.setStatus(FAILED);
+                submission.setError(truncate(e.getMessage()));
+                submission.setProcessedAt(processedAt);
+            }
+        }
+
+        List<Card> changedCards = cards.values().stream()
+                .filter(card -> card.getBalance().compareTo(balances.get(card.getId())) != 0)
+                .toList();
+        changedCards.forEach(card -> card.setBalance(balances.get(card.getId())));
+        cardRepository.saveAll(changedCards);
+
+        List<Transfer> savedTransfers = transferRepository.saveAll(pendingTransfers);
+        transferOutboxService.append(savedTransfers);
+        for (int i = 0; i < savedTransfers.size(); i++) {
+            TransferSubmission submission = applied.get(i);
+            submission.setStatus(COMPLETED);
+            submission.setTransferId(savedTransfers.get(i).getId());
+            submission.setProcessedAt(processedAt);
+        }
+
+        log.debug("Пачка асинхронных переводов: выполнено {}, отклонено {}",
+                applied.size(), submissions.size() - applied.size());
+
+        return applied.size();
+    }
+
+    private void runPartition(BlockingQueue<Long> queue) {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                applyBatchOrEach(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Ошибка пачки целиком (не проверка отдельного перевода) не должна ронять соседние заявки:
+     * пачка переигрывается по одной, и отказ получает только та заявка, на которой ошибка повторилась.
+     */
+    private void applyBatchOrEach(List<Long> batch) {
+        try {
+            applyBatch(batch);
+        } catch (RuntimeException e) {
+            log.error("Пачка из {} асинхронных переводов не применена: {}", batch.size(), e.getMessage(), e);
+            for (Long submissionId : batch) {
+                try {
+                    applyBatch(List.of(submissionId));
+                } catch (RuntimeException single) {
+                    log.error("Асинхронный перевод по заявке ID {} не выполнен: {}", submissionId, single.getMessage());
+                    markFailed(List.of(submissionId), "Перевод не выполнен, повторите запрос");
+                }
+            }
+        }
+    }
+
+    private void markFailed(List<Long> submissionIds, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> transferSubmissionRepository
+                    .findAllByIdInAndStatusWithLock(submissionIds, PENDING)
+                    .forEach(submission -> {
+                        submission.setStatus(FAILED);
+                        submission.setError(error);
+                        submission.setProcessedAt(LocalDateTime.now());
+                    }));
+        } catch (RuntimeException e) {
+            log.error("Не удалось отметить отказ по заявкам {}: {}", submissionIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Заявки, не исполненные до остановки приложения, снова ставятся в очередь своей партиции.
+     */
+    private void recoverPending() {
+        int recovered = 0;
+        long lastId = 0L;
+        try {
+            while (true) {
+                Slice<TransferSubmission> slice = transferSubmissionRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(
+                        PENDING, lastId, PageRequest.of(0, RECOVERY_PAGE_SIZE));
+                for (TransferSubmission submission : slice.getContent()) {
+                    queueOf(submission.getFromCardId()).put(submission.getId());
+                    lastId = submission.getId();
+                    recovered++;
+                }
+                if (!slice.hasNext()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (recovered > 0) {
+            log.info("В очередь возвращено {} неисполненных асинхронных переводов", recovered);
+        }
+    }
+
+    private BlockingQueue<Long> queueOf(Long fromCardId) {
+        return queues.get(Math.floorMod(Long.hashCode(fromCardId), queues.size()));
+    }
+
+    /**
+     * Карты пачки блокируются по одному разу, по возрастанию id - в том же порядке, что и синхронный перевод.
+     */
+    private Map<Long, Card> lockCards(List<TransferSubmission> submissions) {
+        List<Long> cardIds = submissions.stream()
+                .flatMap(submission -> Stream.of(submission.getFromCardId(), submission.getToCardId()))
+                .distinct()
+                .sorted()
+                .toList();
+
+        Map<Long, Card> cards = new LinkedHashMap<>();
+        cardRepository.findAllByIdInWithLock(cardIds).forEach(card -> cards.put(card.getId(), card));
+        return cards;
+    }
+
+    private Card getCard(Map<Long, Card> cards, Long cardId) {
+        Card card = cards.get(cardId);
+        if (card == null) {
+            throw new EntityNotFoundException("Карта с номером Id " + cardId + " отсутствует");
+        }
+        return card;
+    }
+
+    private AsyncTransferResponse toResponse(TransferSubmission submission, CardTransferResponse transfer) {
+        return AsyncTransferResponse.builder()
+                .submissionId(submission.getId())
+                .status(submission.getStatus())
+                .transfer(transfer)
+                .error(submission.getError())
+                .createdAt(submission.getCreatedAt())
+                .processedAt(submission.getProcessedAt())
+                .build();
+    }
+
+    private String truncate(String message) {
+        return message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.exception.InactiveCardException;
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.security.User;
+import com.example.bankcards.service.CardAccessService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+
+import static com.example.bankcards.entity.enums.CardStatus.ACTIVE;
+
+@Slf4j
+@Service
+public class CardAccessServiceImpl implements CardAccessService {
+
+    /**
+     * Администратор работает с картами любого пользователя, остальные - только со своими.
+     */
+    @Override
+    public void checkAccess(User currentUser, Long userId) {
+        boolean isSameUser = currentUser.getId().equals(userId);
+
+        if (!isAdmin(currentUser) && !isSameUser) {
+            log.warn("Отказ в доступе: пользователь ID {} пытается получить доступ к данным пользователя ID {}",
+                    currentUser.getId(), userId);
+            throw new AccessDeniedException("У вас нет прав для взаимодействия с картой другого пользователя");
+        }
+    }
+
+    /**
+     * Баланс отправителя передаётся отдельно: в пакетных переводах он уже уменьшен предыдущими операциями пакета.
+     */
+    @Override
+    public void checkTransfer(Card fromCard, Card toCard, BigDecimal amount, BigDecimal fromCardBalance) {
+        if (!fromCard.getStatus().equals(ACTIVE) || !toCard.getStatus().equals(ACTIVE)) {
+            throw new InactiveCardException("В переводе средств могут участвовать только карты с активным статусом");
+        }
+
+        if (fromCardBalance.compareTo(amount) < 0) {
+            throw new InsufficientFundsException("На карте ID " + fromCard.getId() + " недостаточно средств для перевода");
+        }
+    }
+
+    private boolean isAdmin(User currentUser) {
+        return currentUser.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardBalanceSlot;
+import com.example.bankcards.entity.CardBalanceSlotId;
+import com.example.bankcards.repository.CardBalanceSlotRepository;
+import com.example.bankcards.service.CardBalanceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Баланс горячей карты (cards.balance_slots не null) состоит из cards.balance и слотов card_balance_slots.
+ * Зачисления попадают в один слот и не блокируют строку карты; списание и изменение баланса сначала
+ * сводят все слоты в cards.balance. Порядок блокировок: строки карт по возрастанию id, затем слоты
+ * тех же карт по возрастанию (card_id, slot).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CardBalanceServiceImpl implements CardBalanceService {
+
+    private final CardBalanceSlotRepository cardBalanceSlotRepository;
+
+    @Override
+    public BigDecimal getTotalBalance(Card card) {
+        if (card.getBalanceSlots() == null) {
+            return card.getBalance();
+        }
+        return card.getBalance().add(cardBalanceSlotRepository.sumBalanceByCardId(card.getId()));
+    }
+
+    /**
+     * Переносит накопленное в слотах в cards.balance. Строка карты должна быть уже заблокирована.
+     */
+    @Override
+    public void collectSlots(Card card) {
+        if (card.getBalanceSlots() != null) {
+            lockAndCollectSlots(card);
+        }
+    }
+
+    /**
+     * Зачисление в слот, выбранный по id карты отправителя: переводы с одной карты и так выполняются
+     * последовательно под её блокировкой, а разные отправители расходятся по разным слотам.
+     * false - слота уже нет (число слотов изменилось), зачисление не выполнено.
+     */
+    @Override
+    public boolean creditSlot(Card card, Long sourceCardId, BigDecimal amount) {
+        int slot = Math.floorMod(Long.hashCode(sourceCardId), card.getBalanceSlots());
+        return cardBalanceSlotRepository.addToSlot(card.getId(), slot, amount) == 1;
+    }
+
+    /**
+     * Меняет число слотов карты, 0 - обычная карта. Строка карты должна быть уже заблокирована.
+     */
+    @Override
+    public void resizeSlots(Card card, int slots) {
+        List<CardBalanceSlot> currentSlots = card.getBalanceSlots() == null ? List.of() : lockAndCollectSlots(card);
+
+        cardBalanceSlotRepository.deleteAll(currentSlots.stream()
+                .filter(slot -> slot.getId().getSlot() >= slots)
+                .toList());
+
+        List<CardBalanceSlot> newSlots = new ArrayList<>();
+        for (int slot = currentSlots.size(); slot < slots; slot++) {
+            newSlots.add(CardBalanceSlot.builder()
+                    .id(new CardBalanceSlotId(card.getId(), slot))
+                    .balance(BigDecimal.ZERO)
+                    .build());
+        }
+        cardBalanceSlotRepository.saveAll(newSlots);
+
+        card.setBalanceSlots(slots > 0 ? slots : null);
+
+        log.info("Карта ID {}: количество слотов баланса изменено на {}", card.getId(), slots);
+    }
+
+    private List<CardBalanceSlot> lockAndCollectSlots(Card card) {
+        List<CardBalanceSlot> slots = cardBalanceSlotRepository.findAllByCardIdWithLock(card.getId());
+
+        BigDecimal collected = BigDecimal.ZERO;
+        for (CardBalanceSlot slot : slots) {
+            if (slot.getBalance().signum() != 0) {
+                collected = collected.add(slot.getBalance());
+                slot.setBalance(BigDecimal.ZERO);
+            }
+        }
+
+        if (collected.signum() != 0) {
+            card.setBalance(card.getBalance().add(collected));
+        }
+        return slots;
+    }
+}
@@ -2,19 +2,33 @@ package com.example.bankcards.service.impl;
 
 import com.example.bankcards.exception.CardEncryptionException;
 import com.example.bankcards.service.CardEncryptionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.example.bankcards.constant.MetricConstant.CARD_ENCRYPTION;
+import static com.example.bankcards.constant.MetricConstant.OPERATION_TAG;
 
 @Slf4j
 @Service
 public class CardEncryptionServiceImpl implements CardEncryptionService {
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
     @Value("${card.encryption.algorithm}")
     private String algorithm;
 
@@ -24,6 +38,36 @@ public class CardEncryptionServiceImpl implements CardEncryptionService {
     @Value("${card.encryption.key}")
     private String encryptionKey;
 
+    @Value("${card.fingerprint.key}")
+    private String fingerprintKey;
+
+    private SecretKeySpec secretKey;
+
+    private SecretKeySpec fingerprintSecretKey;
+
+    /**
+     * Cipher и Mac не потокобезопасны, а getInstance дорог (поиск провайдера), поэтому уже
+     * инициализированные экземпляры берутся из общего пула. Не ThreadLocal: запросы обрабатываются
+     * на виртуальных потоках, новый поток на каждый запрос, и кеш по потокам ничего бы не переиспользовал.
+     */
+    private final InstancePool<Cipher> encryptCiphers = new InstancePool<>(() -> createCipher(Cipher.ENCRYPT_MODE));
+
+    private final InstancePool<Cipher> decryptCiphers = new InstancePool<>(() -> createCipher(Cipher.DECRYPT_MODE));
+
+    private final InstancePool<Mac> fingerprintMacs = new InstancePool<>(this::createMac);
+
+    private final Timer encryptTimer;
+
+    private final Timer decryptTimer;
+
+    private final Timer fingerprintTimer;
+
+    public CardEncryptionServiceImpl(MeterRegistry meterRegistry) {
+        encryptTimer = meterRegistry.timer(CARD_ENCRYPTION, OPERATION_TAG, "encrypt");
+        decryptTimer = meterRegistry.timer(CARD_ENCRYPTION, OPERATION_TAG, "decrypt");
+        fingerprintTimer = meterRegistry.timer(CARD_ENCRYPTION, OPERATION_TAG, "fingerprint");
+    }
+
     @PostConstruct
     public void init() {
         log.info("Encryption key length: {} bytes", encryptionKey.getBytes(StandardCharsets.UTF_8).length);
@@ -35,42 +79,111 @@ public class CardEncryptionServiceImpl implements CardEncryptionService {
                     String.format("Неверная длина ключа: %d байт. Для AES требуется 16, 24 или 32 байта", keyBytes.length)
             );
         }
+
+        if (fingerprintKey == null || fingerprintKey.isBlank()) {
+            throw new IllegalStateException("Не задан ключ для вычисления отпечатка номера карты");
+        }
+
+        secretKey = new SecretKeySpec(keyBytes, algorithm);
+        fingerprintSecretKey = new SecretKeySpec(fingerprintKey.getBytes(StandardCharsets.UTF_8), FINGERPRINT_ALGORITHM);
+        encryptCiphers.clear();
+        decryptCiphers.clear();
+        fingerprintMacs.clear();
     }
 
     @Override
     public String encrypt(String cardNumber){
+        long start = System.nanoTime();
         try {
-            SecretKeySpec secretKey = new SecretKeySpec(
-                    encryptionKey.getBytes(StandardCharsets.UTF_8),
-                    algorithm
-            );
-
-            Cipher cipher = Cipher.getInstance(transformation);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-
+            Cipher cipher = encryptCiphers.borrow();
             byte[] encryptedBytes = cipher.doFinal(cardNumber.getBytes(StandardCharsets.UTF_8));
+            encryptCiphers.release(cipher);
             return Base64.getEncoder().encodeToString(encryptedBytes);
         } catch (Exception e) {
             throw new CardEncryptionException("Проблема с шифрованием номера карты.");
+        } finally {
+            encryptTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
     @Override
     public String decrypt(String encryptedCardNumber){
+        long start = System.nanoTime();
         try {
-            SecretKeySpec secretKey = new SecretKeySpec(
-                    encryptionKey.getBytes(StandardCharsets.UTF_8),
-                    algorithm
-            );
-
-            Cipher cipher = Cipher.getInstance(transformation);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
-
             byte[] decodedBytes = Base64.getDecoder().decode(encryptedCardNumber);
+            Cipher cipher = decryptCiphers.borrow();
             byte[] decryptedBytes = cipher.doFinal(decodedBytes);
+            decryptCiphers.release(cipher);
             return new String(decryptedBytes, StandardCharsets.UTF_8);
         } catch (Exception e) {
             throw new CardEncryptionException("Проблема с расшифровкой номера карты.");
+        } finally {
+            decryptTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public String fingerprint(String cardNumber) {
+        long start = System.nanoTime();
+        try {
+            Mac mac = fingerprintMacs.borrow();
+            byte[] digest = mac.doFinal(cardNumber.getBytes(StandardCharsets.UTF_8));
+            fingerprintMacs.release(mac);
+            return HexFormat.of().formatHex(digest);
+        } catch (Exception e) {
+            throw new CardEncryptionException("Проблема с вычислением отпечатка номера карты.");
+        } finally {
+            fingerprintTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Cipher createCipher(int mode) {
+        try {
+            Cipher cipher = Cipher.getInstance(transformation);
+            cipher.init(mode, secretKey);
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new CardEncryptionException("Не удалось инициализировать шифр " + transformation);
+        }
+    }
+
+    private Mac createMac() {
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(fingerprintSecretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new CardEncryptionException("Не удалось инициализировать " + FINGERPRINT_ALGORITHM);
+        }
+    }
+
+    /**
+     * Ограниченный пул: при пустом пуле создаётся новый экземпляр, лишние при возврате отбрасываются,
+     * поэтому вызов никогда не ждёт. Экземпляр, на котором операция упала, в пул не возвращается.
+     */
+    private static final class InstancePool<T> {
+
+        private static final int CAPACITY = Runtime.getRuntime().availableProcessors() * 2;
+
+        private final BlockingQueue<T> idle = new ArrayBlockingQueue<>(CAPACITY);
+
+        private final Supplier<T> factory;
+
+        private InstancePool(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        private T borrow() {
+            T instance = idle.poll();
+            return instance != null ? instance : factory.get();
+        }
+
+        private void release(T instance) {
+            idle.offer(instance);
+        }
+
+        private void clear() {
+            idle.clear();
         }
     }
 }
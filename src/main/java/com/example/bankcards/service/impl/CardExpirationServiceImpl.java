@@ -0,0 +1,104 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.response.CardExpirationResponse;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardExpirationService;
+import com.example.bankcards.service.CardSnapshotCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.bankcards.entity.enums.CardStatus.ACTIVE;
+
+/**
+ * Перевод просроченных карт в EXPIRED короткими пачками, каждая в своей транзакции:
+ * блокировки строк держатся только на время одной пачки, занятые переводами карты пропускаются.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CardExpirationServiceImpl implements CardExpirationService {
+
+    private final CardRepository cardRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CardSnapshotCache cardSnapshotCache;
+
+    @Value("${card.expiration.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${card.expiration.sweeper.chunk-size:1000}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void expireOnStartup() {
+        if (enabled) {
+            expireCards();
+        }
+    }
+
+    @Scheduled(cron = "${card.expiration.sweeper.cron:0 10 0 * * *}")
+    public void expireOnSchedule() {
+        if (enabled) {
+            expireCards();
+        }
+    }
+
+    @Override
+    public CardExpirationResponse expireCards() {
+        LocalDate today = LocalDate.now();
+        long startedAt = System.nanoTime();
+        long expired = 0;
+        int chunks = 0;
+        long maxChunkNanos = 0;
+
+        while (true) {
+            long chunkStartedAt = System.nanoTime();
+            Integer updated = transactionTemplate.execute(status -> cardRepository.expireActiveCards(today, chunkSize));
+            maxChunkNanos = Math.max(maxChunkNanos, System.nanoTime() - chunkStartedAt);
+
+            if (updated == null || updated == 0) {
+                break;
+            }
+            expired += updated;
+            chunks++;
+            if (updated < chunkSize) {
+                break;
+            }
+        }
+
+        // Обновление пачкой не возвращает id карт, поэтому сбрасываются все снимки
+        if (expired > 0) {
+            cardSnapshotCache.evictAll();
+        }
+
+        long durationNanos = System.nanoTime() - startedAt;
+        long remaining = cardRepository.countByStatusAndExpirationDateBefore(ACTIVE, today);
+
+        CardExpirationResponse response = CardExpirationResponse.builder()
+                .expiredCount(expired)
+                .chunkCount(chunks)
+                .remainingCount(remaining)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(durationNanos))
+                .rowsPerSecond(durationNanos > 0 ? expired * TimeUnit.SECONDS.toNanos(1) / durationNanos : 0)
+                .maxChunkMillis(TimeUnit.NANOSECONDS.toMillis(maxChunkNanos))
+                .build();
+
+        if (expired > 0 || remaining > 0) {
+            log.info("Истёк срок действия {} карт за {} мс ({} строк/с, пачек {}, самая долгая {} мс), "
+                            + "пропущено занятых переводами: {}",
+                    expired, response.getDurationMillis(), response.getRowsPerSecond(), chunks,
+                    response.getMaxChunkMillis(), remaining);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.exception.CardEncryptionException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardEncryptionService;
+import com.example.bankcards.service.CardFingerprintBackfillService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CardFingerprintBackfillServiceImpl implements CardFingerprintBackfillService {
+
+    private final CardRepository cardRepository;
+
+    private final CardEncryptionService cardEncryptionService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${card.fingerprint.backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${card.fingerprint.backfill.batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (enabled) {
+            backfill();
+        }
+    }
+
+    @Override
+    public int backfill() {
+        int updated = 0;
+        long lastId = 0L;
+
+        while (true) {
+            long afterId = lastId;
+            List<Card> batch = transactionTemplate.execute(status -> fillBatch(afterId));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            updated += (int) batch.stream().filter(card -> card.getCardFingerprint() != null).count();
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        if (updated > 0) {
+            log.info("Заполнены отпечатки номеров для {} карт", updated);
+        }
+        return updated;
+    }
+
+    private List<Card> fillBatch(long afterId) {
+        List<Card> cards = cardRepository.findAllByCardFingerprintIsNullAndIdGreaterThanOrderByIdAsc(
+                afterId, PageRequest.of(0, batchSize));
+
+        for (Card card : cards) {
+            try {
+                String cardNumber = cardEncryptionService.decrypt(card.getEncryptedCardNumber());
+                card.setCardFingerprint(cardEncryptionService.fingerprint(cardNumber));
+            } catch (CardEncryptionException e) {
+                log.warn("Не удалось вычислить отпечаток для карты ID {}: {}", card.getId(), e.getMessage());
+            }
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.enums.CardImportFormat;
+import com.example.bankcards.dto.request.CreateCardRequest;
+import com.example.bankcards.dto.response.CardImportErrorResponse;
+import com.example.bankcards.dto.response.CardImportResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardEncryptionService;
+import com.example.bankcards.service.CardImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Массовое создание карт из потока строк. Файл читается построчно и обрабатывается пачками:
+ * шифрование и отпечатки считаются параллельно, дубликаты и владельцы проверяются одним запросом
+ * на пачку, карты пишутся батчами JDBC (hibernate.jdbc.batch_size) в отдельной транзакции на пачку.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CardImportServiceImpl implements CardImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final int PROGRESS_LOG_CHUNKS = 50;
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String CSV_HEADER_PREFIX = "card_number";
+
+    private final CardRepository cardRepository;
+
+    private final UserRepository userRepository;
+
+    private final CardEncryptionService cardEncryptionService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public CardImportResponse importCards(CardImportFormat format, InputStream inputStream) {
+        long startedAt = System.nanoTime();
+        ImportProgress progress = new ImportProgress();
+        Set<Long> knownClients = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && format == CardImportFormat.CSV && line.startsWith(CSV_HEADER_PREFIX))) {
+                    continue;
+                }
+
+                progress.totalRows++;
+                ImportRow row = parseRow(format, lineNumber, line, progress);
+                if (row != null) {
+                    chunk.add(row);
+                }
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, knownClients, progress);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения файла импорта карт", e);
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, knownClients, progress);
+        }
+
+        progress.errors.sort(Comparator.comparingLong(CardImportErrorResponse::getLine));
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        log.info("Импорт карт завершён: строк {}, создано {}, ошибок {}, за {} мс",
+                progress.totalRows, progress.imported, progress.failed, durationMillis);
+
+        return CardImportResponse.builder()
+                .totalRows(progress.totalRows)
+                .importedCount(progress.imported)
+                .failedCount(progress.failed)
+                .durationMillis(durationMillis)
+                .errors(progress.errors)
+                .build();
+    }
+
+    private ImportRow parseRow(CardImportFormat format, long lineNumber, String line, ImportProgress progress) {
+        CreateCardRequest request;
+        try {
+            request = format == CardImportFormat.NDJSON
+                    ? objectMapper.readValue(line, CreateCardRequest.class)
+                    : parseCsv(line);
+        } catch (JsonProcessingException | IllegalArgumentException | DateTimeParseException e) {
+            progress.addError(lineNumber, "Некорректный формат строки");
+            return null;
+        }
+
+        Set<ConstraintViolation<CreateCardRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            progress.addError(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+
+        return new ImportRow(lineNumber, request);
+    }
+
+    /**
+     * Колонки: card_number,client_id,expiration_date,balance.
+     */
+    private CreateCardRequest parseCsv(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 4) {
+            throw new IllegalArgumentException("Ожидается 4 колонки");
+        }
+
+        return CreateCardRequest.builder()
+                .cardNumber(columns[0].trim())
+                .clientId(Long.parseLong(columns[1].trim()))
+                .expirationDate(LocalDate.parse(columns[2].trim()))
+                .balance(new BigDecimal(columns[3].trim()))
+                .build();
+    }
+
+    private void importChunk(List<ImportRow> rows, Set<Long> knownClients, ImportProgress progress) {
+        List<PreparedCard> cards = rows.parallelStream()
+                .map(row -> new PreparedCard(
+                        row.line(),
+                        row.request(),
+                        cardEncryptionService.fingerprint(row.request().getCardNumber()),
+                        cardEncryptionService.encrypt(row.request().getCardNumber())))
+                .toList();
+
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> writeChunk(cards, knownClients));
+        } catch (DataIntegrityViolationException | PersistenceException e) {
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+            // Карту с тем же номером успели создать между проверкой и вставкой: повторная проверка её отсеет
+            log.warn("Конфликт уникальности при импорте пачки карт, пачка будет записана повторно");
+            result = transactionTemplate.execute(status -> writeChunk(cards, knownClients));
+        }
+
+        progress.imported += result.imported;
+        result.errors.forEach(error -> progress.addError(error.getLine(), error.getError()));
+
+        if (++progress.chunks % PROGRESS_LOG_CHUNKS == 0) {
+            log.info("Импорт карт: обработано {} строк, создано {}, ошибок {}",
+                    progress.totalRows, progress.imported, progress.failed);
+        }
+    }
+
+    /**
+     * entityManager.flush() вызывается вне репозитория, поэтому нарушение ограничения приходит
+     * не переведённым в DataIntegrityViolationException, а исключением Hibernate.
+     */
+    private static boolean isConstraintViolation(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException || cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ChunkResult writeChunk(List<PreparedCard> cards, Set<Long> knownClients) {
+        Set<String> takenFingerprints = new HashSet<>(cardRepository.findExistingFingerprints(
+                cards.stream().map(PreparedCard::fingerprint).toList()));
+
+        Set<Long> newClients = cards.stream()
+                .map(card -> card.request().getClientId())
+                .filter(clientId -> !knownClients.contains(clientId))
+                .collect(Collectors.toSet());
+        if (!newClients.isEmpty()) {
+            knownClients.addAll(userRepository.findExistingIds(newClients));
+        }
+
+        ChunkResult result = new ChunkResult();
+        for (PreparedCard prepared : cards) {
+            CreateCardRequest request = prepared.request();
+            String lastFourDigits = request.getCardNumber().substring(request.getCardNumber().length() - 4);
+
+            if (!takenFingerprints.add(prepared.fingerprint())) {
+                result.errors.add(new CardImportErrorResponse(prepared.line(),
+                        "Карта с номером **** **** **** " + lastFourDigits + " уже существует"));
+                continue;
+            }
+            if (!knownClients.contains(request.getClientId())) {
+                result.errors.add(new CardImportErrorResponse(prepared.line(),
+                        "Пользователя с ID " + request.getClientId() + " не существует"));
+                continue;
+            }
+
+            entityManager.persist(Card.builder()
+                    .encryptedCardNumber(prepared.encryptedCardNumber())
+                    .cardFingerprint(prepared.fingerprint())
+                    .lastFourDigits(lastFourDigits)
+                    .clientId(request.getClientId())
+                    .expirationDate(request.getExpirationDate())
+                    .status(CardStatus.forExpirationDate(request.getExpirationDate()))
+                    .balance(request.getBalance())
+                    .build());
+            result.imported++;
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return result;
+    }
+
+    private record ImportRow(long line, CreateCardRequest request) {
+    }
+
+    private record PreparedCard(long line, CreateCardRequest request, String fingerprint, String encryptedCardNumber) {
+    }
+
+    private static final class ChunkResult {
+
+        private long imported;
+
+        private final List<CardImportErrorResponse> errors = new ArrayList<>();
+    }
+
+    private static final class ImportProgress {
+
+        private long totalRows;
+
+        private long imported;
+
+        private long failed;
+
+        private long chunks;
+
+        private final List<CardImportErrorResponse> errors = new ArrayList<>();
+
+        private void addError(long line, String error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new CardImportErrorResponse(line, error));
+            }
+        }
+    }
+}
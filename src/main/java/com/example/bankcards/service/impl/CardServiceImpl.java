@@ -1,36 +1,82 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.dto.enums.TransferDirection;
+import com.example.bankcards.dto.request.BlockRequestDecisionRequest;
+import com.example.bankcards.dto.request.CardBatchTransferRequest;
 import com.example.bankcards.dto.request.CardTransferRequest;
 import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.request.UpdateCardRequest;
+import com.example.bankcards.dto.response.BatchTransferItemResponse;
+import com.example.bankcards.dto.response.BlockRequestDecisionResponse;
+import com.example.bankcards.dto.response.CardBatchTransferResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CardStatementResponse;
 import com.example.bankcards.dto.response.CardTransferResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Transfer;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.exception.EntityAlreadyExistsException;
+import com.example.bankcards.exception.TransferConflictException;
 import com.example.bankcards.mapper.CardMapper;
 import com.example.bankcards.mapper.TransferMapper;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransferRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.User;
+import com.example.bankcards.service.CardAccessService;
+import com.example.bankcards.service.CardBalanceService;
 import com.example.bankcards.service.UserService;
 import com.example.bankcards.service.CardEncryptionService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.CardSnapshotCache;
+import com.example.bankcards.service.CardSnapshotCache.CardSnapshot;
+import com.example.bankcards.service.CardStatementService;
+import com.example.bankcards.service.TransferIdempotencyService;
+import com.example.bankcards.service.TransferOutboxService;
+import com.example.bankcards.util.CursorCodec;
+import com.example.bankcards.util.DateRanges;
+import com.example.bankcards.util.MetricOutcomes;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.example.bankcards.constant.MetricConstant.CARD_CREATE;
+import static com.example.bankcards.constant.MetricConstant.CARD_LOCK_WAIT;
+import static com.example.bankcards.constant.MetricConstant.CARD_TRANSFER;
+import static com.example.bankcards.constant.MetricConstant.CARD_TRANSFER_REPLAY;
+import static com.example.bankcards.constant.MetricConstant.OUTCOME_TAG;
+import static com.example.bankcards.dto.enums.BatchTransferItemStatus.COMPLETED;
+import static com.example.bankcards.dto.enums.BatchTransferItemStatus.FAILED;
+import static com.example.bankcards.dto.enums.BatchTransferItemStatus.ROLLED_BACK;
+import static com.example.bankcards.dto.enums.BatchTransferMode.ALL_OR_NOTHING;
+import static com.example.bankcards.dto.enums.BlockRequestDecision.APPROVE;
 import static com.example.bankcards.entity.enums.CardStatus.ACTIVE;
+import static com.example.bankcards.entity.enums.CardStatus.BLOCKED;
 import static com.example.bankcards.entity.enums.CardStatus.EXPIRED;
 import static com.example.bankcards.entity.enums.CardStatus.REQUEST_FOR_BLOCKING;
 
@@ -39,6 +85,10 @@ import static com.example.bankcards.entity.enums.CardStatus.REQUEST_FOR_BLOCKING
 @RequiredArgsConstructor
 public class CardServiceImpl implements CardService {
 
+    private static final int LOCK_CHUNK_SIZE = 1000;
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
     private final CardRepository cardRepository;
 
     private final UserRepository userRepository;
@@ -53,16 +103,38 @@ public class CardServiceImpl implements CardService {
 
     private final UserService userService;
 
+    private final CardAccessService cardAccessService;
+
+    private final CardBalanceService cardBalanceService;
+
+    private final CardStatementService cardStatementService;
+
+    private final CardSnapshotCache cardSnapshotCache;
+
+    private final MeterRegistry meterRegistry;
+
+    private final TransferIdempotencyService transferIdempotencyService;
+
+    private final TransferOutboxService transferOutboxService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${card.transfer.striped-credits:false}")
+    private boolean stripedCredits;
+
     @Override
     @Transactional
     public CardResponse createCard(CreateCardRequest request) {
+        return timed(CARD_CREATE, () -> doCreateCard(request));
+    }
 
+    private CardResponse doCreateCard(CreateCardRequest request) {
         log.info("Создание карты для пользователя ID: {}", request.getClientId());
 
-        String encryptedCardNumber = cardEncryptionService.encrypt(request.getCardNumber());
+        String cardFingerprint = cardEncryptionService.fingerprint(request.getCardNumber());
         String lastFourDigits = extractLastFourDigits(request.getCardNumber());
 
-        if (cardRepository.existsByEncryptedCardNumber(encryptedCardNumber)) {
+        if (cardRepository.existsByCardFingerprint(cardFingerprint)) {
             throw new EntityAlreadyExistsException("Карта с номером **** **** **** " + lastFourDigits + " уже существует");
         }
 
@@ -70,10 +142,13 @@ public class CardServiceImpl implements CardService {
             throw new EntityNotFoundException("Пользователя с ID " + request.getClientId() + " не существует");
         }
 
-        CardStatus status = determineCardStatus(request.getExpirationDate());
+        CardStatus status = CardStatus.forExpirationDate(request.getExpirationDate());
+
+        String encryptedCardNumber = cardEncryptionService.encrypt(request.getCardNumber());
 
         Card card = Card.builder()
                 .encryptedCardNumber(encryptedCardNumber)
+                .cardFingerprint(cardFingerprint)
                 .lastFourDigits(lastFourDigits)
                 .clientId(request.getClientId())
                 .expirationDate(request.getExpirationDate())
@@ -98,7 +173,7 @@ public class CardServiceImpl implements CardService {
     @Override
     @Transactional(readOnly = true)
     public Page<CardResponse> getAllCardsByUserId(Long userId, PageRequest pageRequest) {
-        verificationAccessRights(userId);
+        verificationUserCardsAccess(userId);
 
         return cardRepository.findAllByClientId(userId, pageRequest)
                 .map(cardMapper::mapToResponseDTO);
@@ -111,24 +186,53 @@ public class CardServiceImpl implements CardService {
                 .map(cardMapper::mapToResponseDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CardResponse> getAllCardsAfter(String after, int size) {
+        return toCursorPage(cardRepository.findAllByIdGreaterThanOrderByIdAsc(
+                CursorCodec.decodeId(after), PageRequest.of(0, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CardResponse> getAllCardsByUserIdAfter(Long userId, String after, int size) {
+        verificationUserCardsAccess(userId);
+
+        return toCursorPage(cardRepository.findAllByClientIdAndIdGreaterThanOrderByIdAsc(
+                userId, CursorCodec.decodeId(after), PageRequest.of(0, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CardResponse> getAllCardsByLastFourDigitsAfter(String cardNumber, String after, int size) {
+        return toCursorPage(cardRepository.findAllByLastFourDigitsAndIdGreaterThanOrderByIdAsc(
+                cardNumber, CursorCodec.decodeId(after), PageRequest.of(0, size)));
+    }
+
     @Override
     @Transactional
     public CardResponse updateCard(Long cardId, UpdateCardRequest request) {
 
         log.debug("Обновление карты ID: {}", cardId);
 
-        Card card = cardRepository.findById(cardId).orElseThrow(
+        Card card = cardRepository.findByIdWithLock(cardId).orElseThrow(
                 () -> new EntityNotFoundException("Карта с номером Id " + cardId + " уже отсутствует"));
 
         if (request.getStatus() != null && !card.getStatus().equals(EXPIRED) && !request.getStatus().equals(EXPIRED)){
             card.setStatus(request.getStatus());
         }
 
+        if (request.getBalanceSlots() != null) {
+            cardBalanceService.resizeSlots(card, request.getBalanceSlots());
+        }
+
         if (request.getBalance() != null){
+            cardBalanceService.collectSlots(card);
             card.setBalance(request.getBalance());
         }
 
         Card updatedCard = cardRepository.save(card);
+        cardSnapshotCache.evictAfterCommit(List.of(cardId));
 
         log.debug("Карта с ID: {} успешно обновлена", cardId);
 
@@ -136,41 +240,257 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public BigDecimal getCardBalance(Long cardId) {
-        Card card = cardRepository.findById(cardId).orElseThrow(
-                () -> new EntityNotFoundException("Карта с номером Id " + cardId + " отсутствует"));
+        CardSnapshot snapshot = cardSnapshotCache.get(cardId);
 
-        verificationAccessRights(card.getClientId());
+        cardAccessService.checkAccess(userService.getCurrentUser(), snapshot.card().getClientId());
 
-        return card.getBalance();
+        return snapshot.totalBalance();
+    }
+
+    /**
+     * REPEATABLE READ: выписка считает балансы от текущего баланса карты и сумм переводов,
+     * все они должны читаться из одного снимка БД.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CardStatementResponse getCardStatement(Long cardId, LocalDate from, LocalDate to) {
+        LocalDate periodEnd = to != null ? to : LocalDate.now();
+        DateRanges.validate(from, periodEnd);
+
+        Card card = findCard(cardId);
+        cardAccessService.checkAccess(userService.getCurrentUser(), card.getClientId());
+
+        return cardStatementService.getStatement(card, from, periodEnd);
     }
 
     @Override
-    @Transactional
     public CardResponse getCard(Long cardId) {
         log.info("Получение карты ID: {}", cardId);
+        CardSnapshot snapshot = cardSnapshotCache.get(cardId);
+
+        cardAccessService.checkAccess(userService.getCurrentUser(), snapshot.card().getClientId());
+
+        return snapshot.card();
+    }
+
+    @Override
+    @Transactional
+    public CardTransferResponse transferBetweenCards(CardTransferRequest transferRequest) {
+        return timed(CARD_TRANSFER, () -> transfer(transferRequest));
+    }
+
+    /**
+     * Повтор с уже выполненным ключом отдаёт сохранённый перевод без блокировки карт. Ключ вставляется
+     * в той же транзакции до перевода: параллельный дубль ждёт на первичном ключе, а после коммита
+     * первого запроса получает его результат.
+     */
+    @Override
+    public CardTransferResponse transferBetweenCards(CardTransferRequest transferRequest, String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Ключ идемпотентности должен содержать от 1 до " + MAX_IDEMPOTENCY_KEY_LENGTH + " символов");
+        }
+        Long userId = userService.getCurrentUser().getId();
+
+        Optional<CardTransferResponse> completed =
+                transferIdempotencyService.findCompleted(userId, idempotencyKey, transferRequest);
+        if (completed.isPresent()) {
+            meterRegistry.counter(CARD_TRANSFER_REPLAY).increment();
+            return completed.get();
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                if (!transferIdempotencyService.reserve(userId, idempotencyKey, transferRequest)) {
+                    throw new IdempotencyKeyTakenException();
+                }
+                CardTransferResponse response = timed(CARD_TRANSFER, () -> transfer(transferRequest));
+                transferIdempotencyService.complete(userId, idempotencyKey, transferRequest, response);
+                return response;
+            });
+        } catch (IdempotencyKeyTakenException e) {
+            log.info("Параллельный запрос с ключом идемпотентности {} пользователя ID {}", idempotencyKey, userId);
+            CardTransferResponse response = transferIdempotencyService
+                    .findCompleted(userId, idempotencyKey, transferRequest)
+                    .orElseThrow(() -> new TransferConflictException(
+                            "Перевод с этим ключом идемпотентности ещё выполняется, повторите запрос"));
+            meterRegistry.counter(CARD_TRANSFER_REPLAY).increment();
+            return response;
+        }
+    }
+
+    private CardTransferResponse transfer(CardTransferRequest transferRequest) {
+        User currentUser = userService.getCurrentUser();
+
+        Long fromCardId = transferRequest.getFromCardId();
+        Long toCardId = transferRequest.getToCardId();
+
+        if (fromCardId.equals(toCardId)) {
+            throw new IllegalArgumentException("Неверно указаны Id карт");
+        }
+
+        cardSnapshotCache.evictAfterCommit(List.of(fromCardId, toCardId));
+
+        if (stripedCredits && isStripedCredit(fromCardId, toCardId)) {
+            return transferToStripedCard(currentUser, transferRequest);
+        }
+
+        return transferWithRowLocks(currentUser, transferRequest);
+    }
+
+    @Override
+    @Transactional
+    public CardBatchTransferResponse transferBatch(CardBatchTransferRequest batchRequest) {
+        User currentUser = userService.getCurrentUser();
+        List<CardTransferRequest> transfers = batchRequest.getTransfers();
+
+        log.info("Пакетный перевод: {} операций, режим {}", transfers.size(), batchRequest.getMode());
+
+        Map<Long, Card> cards = lockCards(transfers);
+        cards.values().forEach(cardBalanceService::collectSlots);
+        cardSnapshotCache.evictAfterCommit(cards.keySet());
+
+        // Балансы меняются только в памяти, в карты они переносятся после проверки всего пакета
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        cards.values().forEach(card -> balances.put(card.getId(), card.getBalance()));
+
+        List<BatchTransferItemResponse> items = new ArrayList<>(transfers.size());
+        List<BatchTransferItemResponse> completedItems = new ArrayList<>(transfers.size());
+        List<Transfer> pendingTransfers = new ArrayList<>(transfers.size());
+
+        for (int index = 0; index < transfers.size(); index++) {
+            CardTransferRequest transferRequest = transfers.get(index);
+            try {
+                Card fromCard = getLockedCard(cards, transferRequest.getFromCardId());
+                Card toCard = getLockedCard(cards, transferRequest.getToCardId());
+                BigDecimal amount = transferRequest.getAmount();
+
+                checkValidationRequest(currentUser, fromCard, toCard, amount, balances.get(fromCard.getId()));
+
+                BigDecimal fromCardNewBalance = balances.merge(fromCard.getId(), amount, BigDecimal::subtract);
+                BigDecimal toCardNewBalance = balances.merge(toCard.getId(), amount, BigDecimal::add);
+
+                pendingTransfers.add(Transfer.builder()
+                        .fromCardId(fromCard.getId())
+                        .toCardId(toCard.getId())
+                        .amount(amount)
+                        .fromCardNewBalance(fromCardNewBalance)
+                        .toCardNewBalance(toCardNewBalance)
+                        .description(transferRequest.getDescription())
+                        .build()
+                );
+
+                BatchTransferItemResponse item = BatchTransferItemResponse.builder()
+                        .index(index)
+                        .status(COMPLETED)
+                        .build();
+                items.add(item);
+                completedItems.add(item);
+            } catch (IllegalArgumentException | AccessDeniedException | EntityNotFoundException e) {
+                items.add(BatchTransferItemResponse.builder()
+                        .index(index)
+                        .status(FAILED)
+                        .error(e.getMessage())
+                        .build());
+            }
+        }
+
+        int failedCount = items.size() - completedItems.size();
+
+        if (failedCount > 0 && batchRequest.getMode() == ALL_OR_NOTHING) {
+            log.warn("Пакетный перевод отклонён: {} из {} операций не прошли проверку", failedCount, items.size());
+            completedItems.forEach(item -> item.setStatus(ROLLED_BACK));
+            return buildBatchResponse(batchRequest, 0, failedCount, items);
+        }
+
+        List<Card> changedCards = cards.values().stream()
+                .filter(card -> card.getBalance().compareTo(balances.get(card.getId())) != 0)
+                .toList();
+        changedCards.forEach(card -> card.setBalance(balances.get(card.getId())));
+
+        cardRepository.saveAll(changedCards);
+        List<Transfer> savedTransfers = transferRepository.saveAll(pendingTransfers);
+        transferOutboxService.append(savedTransfers);
+
+        for (int i = 0; i < savedTransfers.size(); i++) {
+            completedItems.get(i).setTransfer(transferMapper.toCardTransferResponse(savedTransfers.get(i)));
+        }
+
+        log.info("Пакетный перевод выполнен: {} операций, отклонено {}", completedItems.size(), failedCount);
+
+        return buildBatchResponse(batchRequest, completedItems.size(), failedCount, items);
+    }
+
+    @Override
+    @Transactional
+    public CardResponse blockedCard(Long cardId) {
         Card card = cardRepository.findById(cardId).orElseThrow(
                 () -> new EntityNotFoundException("Карта с номером Id " + cardId + " отсутствует"));
 
-        verificationAccessRights(card.getClientId());
+        cardAccessService.checkAccess(userService.getCurrentUser(), card.getClientId());
+
+        if (!card.getStatus().equals(ACTIVE)){
+            throw new IllegalArgumentException("Создать запрос на блокировку можно только по активной карте");
+        }
+
+        card.setStatus(REQUEST_FOR_BLOCKING);
+        cardSnapshotCache.evictAfterCommit(List.of(cardId));
+
+        return cardMapper.mapToResponseDTO(cardRepository.save(card));
+    }
 
-        return cardMapper.mapToResponseDTO(card);
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CardResponse> getBlockRequestsAfter(String after, int size) {
+        return toCursorPage(cardRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(
+                REQUEST_FOR_BLOCKING, CursorCodec.decodeId(after), PageRequest.of(0, size)));
     }
 
     @Override
     @Transactional
-    public CardTransferResponse transferBetweenCards(CardTransferRequest transferRequest) {
+    public BlockRequestDecisionResponse resolveBlockRequests(BlockRequestDecisionRequest request) {
+        List<Long> cardIds = request.getCardIds().stream()
+                .distinct()
+                .sorted()
+                .toList();
+        CardStatus status = request.getDecision() == APPROVE ? BLOCKED : ACTIVE;
+
+        int updated = 0;
+        for (int from = 0; from < cardIds.size(); from += LOCK_CHUNK_SIZE) {
+            List<Long> chunk = cardIds.subList(from, Math.min(from + LOCK_CHUNK_SIZE, cardIds.size()));
+            updated += cardRepository.resolveBlockRequests(chunk, status.name());
+        }
+        cardSnapshotCache.evictAfterCommit(cardIds);
+
+        log.info("Запросы на блокировку: решение {}, карт передано {}, обновлено {}",
+                request.getDecision(), cardIds.size(), updated);
 
-        Card fromCard = cardRepository.findByIdWithLock(transferRequest.getFromCardId()).orElseThrow(
-                () -> new EntityNotFoundException("Карта с номером Id " + transferRequest.getFromCardId() + " отсутствует"));
+        return BlockRequestDecisionResponse.builder()
+                .decision(request.getDecision())
+                .requestedCount(cardIds.size())
+                .updatedCount(updated)
+                .build();
+    }
+
+    private CardTransferResponse transferWithRowLocks(User currentUser, CardTransferRequest transferRequest) {
+        Long fromCardId = transferRequest.getFromCardId();
+        Long toCardId = transferRequest.getToCardId();
+
+        // Карты блокируются по возрастанию id: встречные переводы между одной парой карт
+        // ждут друг друга на первой блокировке, а не взаимоблокируются
+        Card firstLocked = lockCard(Math.min(fromCardId, toCardId));
+        Card secondLocked = lockCard(Math.max(fromCardId, toCardId));
+
+        cardBalanceService.collectSlots(firstLocked);
+        cardBalanceService.collectSlots(secondLocked);
 
-        Card toCard = cardRepository.findByIdWithLock(transferRequest.getToCardId()).orElseThrow(
-                () -> new EntityNotFoundException("Карта с номером Id " + transferRequest.getFromCardId() + " отсутствует"));
+        Card fromCard = firstLocked.getId().equals(fromCardId) ? firstLocked : secondLocked;
+        Card toCard = fromCard == firstLocked ? secondLocked : firstLocked;
 
         BigDecimal amount = transferRequest.getAmount();
 
-        checkValidationRequest(fromCard, toCard, amount);
+        checkValidationRequest(currentUser, fromCard, toCard, amount, fromCard.getBalance());
 
         BigDecimal fromCardNewBalance = fromCard.getBalance().subtract(amount);
         BigDecimal toCardNewBalance = toCard.getBalance().add(amount);
@@ -190,50 +510,179 @@ public class CardServiceImpl implements CardService {
                 .description(transferRequest.getDescription())
                 .build()
         );
-
+        transferOutboxService.append(List.of(savedTransfer));
 
         return transferMapper.toCardTransferResponse(savedTransfer);
     }
 
-    @Override
-    @Transactional
-    public CardResponse blockedCard(Long cardId) {
-        Card card = cardRepository.findById(cardId).orElseThrow(
-                () -> new EntityNotFoundException("Карта с номером Id " + cardId + " отсутствует"));
+    private boolean isStripedCredit(Long fromCardId, Long toCardId) {
+        List<Long> stripedCardIds = cardRepository.findStripedIdsByIdIn(List.of(fromCardId, toCardId));
+        return stripedCardIds.contains(toCardId) && !stripedCardIds.contains(fromCardId);
+    }
 
-        verificationAccessRights(card.getClientId());
+    /**
+     * Зачисление на горячую карту: блокируется только карта отправителя, сумма добавляется в один из слотов
+     * получателя. Параллельные зачисления от разных отправителей не ждут друг друга на строке карты.
+     * Поэтому новый баланс получателя не записывается (to_card_new_balance = null): без блокировки
+     * всех слотов сумма слотов может уже включать чужие зачисления или ещё не включать их.
+     */
+    private CardTransferResponse transferToStripedCard(User currentUser, CardTransferRequest transferRequest) {
+        Card fromCard = lockCard(transferRequest.getFromCardId());
+        Card toCard = findCard(transferRequest.getToCardId());
+        BigDecimal amount = transferRequest.getAmount();
 
-        if (!card.getStatus().equals(ACTIVE)){
-            throw new IllegalArgumentException("Создать запрос на блокировку можно только по активной карте");
+        checkValidationRequest(currentUser, fromCard, toCard, amount, fromCard.getBalance());
+
+        if (fromCard.getBalanceSlots() != null || toCard.getBalanceSlots() == null
+                || !cardBalanceService.creditSlot(toCard, fromCard.getId(), amount)) {
+            throw new TransferConflictException("Перевод не выполнен из-за параллельного изменения карт, повторите запрос");
         }
 
-        card.setStatus(REQUEST_FOR_BLOCKING);
+        fromCard.setBalance(fromCard.getBalance().subtract(amount));
+        cardRepository.save(fromCard);
 
-        return cardMapper.mapToResponseDTO(cardRepository.save(card));
+        Transfer savedTransfer = transferRepository.save(Transfer.builder()
+                .fromCardId(fromCard.getId())
+                .toCardId(toCard.getId())
+                .amount(amount)
+                .fromCardNewBalance(fromCard.getBalance())
+                .description(transferRequest.getDescription())
+                .build()
+        );
+        transferOutboxService.append(List.of(savedTransfer));
+
+        return transferMapper.toCardTransferResponse(savedTransfer);
     }
 
-    private void checkValidationRequest(Card fromCard, Card toCard, BigDecimal amount) {
-        if (fromCard.equals(toCard)){
-            throw new IllegalArgumentException("Неверно указаны Id карт");
+    private Card lockCard(Long cardId) {
+        Optional<Card> card = meterRegistry.timer(CARD_LOCK_WAIT).record(() -> cardRepository.findByIdWithLock(cardId));
+        return card.orElseThrow(() -> new EntityNotFoundException("Карта с номером Id " + cardId + " отсутствует"));
+    }
+
+    /**
+     * Блокирует все карты пакета по одному разу, по возрастанию id - в том же порядке, что и одиночный перевод.
+     */
+    private Map<Long, Card> lockCards(List<CardTransferRequest> transfers) {
+        List<Long> cardIds = transfers.stream()
+                .flatMap(transfer -> Stream.of(transfer.getFromCardId(), transfer.getToCardId()))
+                .distinct()
+                .sorted()
+                .toList();
+
+        Map<Long, Card> cards = new LinkedHashMap<>();
+        for (int from = 0; from < cardIds.size(); from += LOCK_CHUNK_SIZE) {
+            List<Long> chunk = cardIds.subList(from, Math.min(from + LOCK_CHUNK_SIZE, cardIds.size()));
+            cardRepository.findAllByIdInWithLock(chunk).forEach(card -> cards.put(card.getId(), card));
+        }
+        return cards;
+    }
+
+    private Card getLockedCard(Map<Long, Card> cards, Long cardId) {
+        Card card = cards.get(cardId);
+        if (card == null) {
+            throw new EntityNotFoundException("Карта с номером Id " + cardId + " отсутствует");
         }
+        return card;
+    }
+
+    private CardBatchTransferResponse buildBatchResponse(CardBatchTransferRequest batchRequest, int completedCount,
+                                                         int failedCount, List<BatchTransferItemResponse> items) {
+        return CardBatchTransferResponse.builder()
+                .mode(batchRequest.getMode())
+                .completedCount(completedCount)
+                .failedCount(failedCount)
+                .items(items)
+                .build();
+    }
 
-        verificationAccessRights(fromCard.getClientId());
-        verificationAccessRights(toCard.getClientId());
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CardTransferResponse> getTransferHistory(Long cardId, TransferDirection direction,
+                                                                       LocalDate from, LocalDate to,
+                                                                       String after, int size) {
+        DateRanges.validate(from, to);
+
+        Card card = findCard(cardId);
+        cardAccessService.checkAccess(userService.getCurrentUser(), card.getClientId());
+
+        LocalDateTime start = DateRanges.startOf(from);
+        LocalDateTime beforeCreatedAt = DateRanges.endOf(to);
+        long beforeId = 0L;
+
+        if (after != null && !after.isBlank()) {
+            String[] cursor = CursorCodec.decode(after, 2);
+            try {
+                beforeCreatedAt = LocalDateTime.parse(cursor[0]);
+                beforeId = Long.parseLong(cursor[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Некорректный курсор страницы", e);
+            }
+        }
 
-        if (!fromCard.getStatus().equals(ACTIVE) || !toCard.getStatus().equals(ACTIVE)){
-            throw new IllegalArgumentException("В переводе средств могут участвовать только карты с активным статусом");
+        PageRequest pageRequest = PageRequest.of(0, size);
+        Slice<Transfer> slice = switch (direction) {
+            case IN -> transferRepository.findIncomingBefore(cardId, start, beforeCreatedAt, beforeId, pageRequest);
+            case OUT -> transferRepository.findOutgoingBefore(cardId, start, beforeCreatedAt, beforeId, pageRequest);
+            case ALL -> transferRepository.findAllBefore(cardId, start, beforeCreatedAt, beforeId, pageRequest);
+        };
+
+        List<Transfer> transfers = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Transfer last = transfers.get(transfers.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
         }
 
-        if (fromCard.getBalance().compareTo(amount) < 0){
-            throw new IllegalArgumentException("На карте ID " + fromCard.getId() + " недостаточно средств для перевода");
+        return CursorPageResponse.<CardTransferResponse>builder()
+                .content(transfers.stream().map(transferMapper::toCardTransferResponse).toList())
+                .size(transfers.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private CursorPageResponse<CardResponse> toCursorPage(Slice<Card> slice) {
+        List<Card> cards = slice.getContent();
+        String nextCursor = slice.hasNext() ? CursorCodec.encodeId(cards.get(cards.size() - 1).getId()) : null;
+
+        return CursorPageResponse.<CardResponse>builder()
+                .content(cards.stream().map(cardMapper::mapToResponseDTO).toList())
+                .size(cards.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private Card findCard(Long cardId) {
+        return cardRepository.findById(cardId).orElseThrow(
+                () -> new EntityNotFoundException("Карта с номером Id " + cardId + " отсутствует"));
+    }
+
+    private void checkValidationRequest(User currentUser, Card fromCard, Card toCard, BigDecimal amount,
+                                        BigDecimal fromCardBalance) {
+        if (fromCard.equals(toCard)){
+            throw new IllegalArgumentException("Неверно указаны Id карт");
         }
+
+        cardAccessService.checkAccess(currentUser, fromCard.getClientId());
+        cardAccessService.checkAccess(currentUser, toCard.getClientId());
+        cardAccessService.checkTransfer(fromCard, toCard, amount, fromCardBalance);
     }
 
-    private CardStatus determineCardStatus(LocalDate expirationDate) {
-        if (expirationDate.isBefore(LocalDate.now())) {
-            return EXPIRED;
+    /**
+     * Время операции с тегом outcome: успешные и отклонённые по разным причинам вызовы - отдельные ряды.
+     */
+    private <T> T timed(String metricName, Supplier<T> operation) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = MetricOutcomes.SUCCESS;
+        try {
+            return operation.get();
+        } catch (RuntimeException e) {
+            outcome = MetricOutcomes.of(e);
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(metricName, OUTCOME_TAG, outcome));
         }
-        return ACTIVE;
     }
 
     public String extractLastFourDigits(String cardNumber) {
@@ -243,22 +692,19 @@ public class CardServiceImpl implements CardService {
         return cardNumber.substring(cardNumber.length() - 4);
     }
 
-    private void verificationAccessRights(Long userId){
+    private void verificationUserCardsAccess(Long userId) {
         User currentUser = userService.getCurrentUser();
+        cardAccessService.checkAccess(currentUser, userId);
 
-        if (!userRepository.existsById(userId)) {
+        if (!currentUser.getId().equals(userId) && !userRepository.existsById(userId)) {
             throw new IllegalArgumentException("Пользователя с ID " + userId + " не существует");
         }
+    }
 
-        boolean isAdmin = currentUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-
-        boolean isSameUser = currentUser.getId().equals(userId);
-
-        if (!isAdmin && !isSameUser) {
-            log.warn("Отказ в доступе: пользователь ID {} пытается получить доступ к данным пользователя ID {}",
-                    currentUser.getId(), userId);
-            throw new AccessDeniedException("У вас нет прав для взаимодействия с картой другого пользователя");
-        }
+    /**
+     * Ключ идемпотентности уже вставлен параллельным запросом: откатывает транзакцию перевода. Остальные
+     * ошибки перевода, в том числе нарушения ограничений при записи, пробрасываются как есть.
+     */
+    private static final class IdempotencyKeyTakenException extends RuntimeException {
     }
 }
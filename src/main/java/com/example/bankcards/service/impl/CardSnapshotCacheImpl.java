@@ -0,0 +1,136 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardBalanceService;
+import com.example.bankcards.service.CardSnapshotCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.example.bankcards.constant.MetricConstant.CARD_SNAPSHOT_CACHE;
+
+/**
+ * Снимки карт для чтения карты и баланса: повторное чтение неизменённой карты не обращается к БД.
+ * Изменяющие карту операции сбрасывают снимок после коммита, TTL - страховка от пропущенного сброса.
+ * <p>
+ * Загрузка идёт вне блокировки кеша: сброс вызывается после коммита, пока транзакция ещё держит соединение,
+ * и не должен ждать загрузку, которая сама ждёт свободное соединение. Загруженный снимок остаётся в кеше,
+ * только если за время загрузки не было сброса карт из той же полосы счётчика сбросов.
+ * <p>
+ * Внутри открытой транзакции кеш не используется: она может видеть ещё не закоммиченные изменения,
+ * и снимок с ними нельзя отдавать другим запросам.
+ */
+@Service
+public class CardSnapshotCacheImpl implements CardSnapshotCache {
+
+    private static final int EVICTION_STRIPES = 256;
+
+    private final CardRepository cardRepository;
+
+    private final CardMapper cardMapper;
+
+    private final CardBalanceService cardBalanceService;
+
+    private final TransactionTemplate loadTransaction;
+
+    private final Cache<Long, CardSnapshot> cache;
+
+    private final AtomicLongArray evictions = new AtomicLongArray(EVICTION_STRIPES);
+
+    public CardSnapshotCacheImpl(
+            CardRepository cardRepository,
+            CardMapper cardMapper,
+            CardBalanceService cardBalanceService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${card.snapshot-cache.maximum-size:100000}") long maximumSize,
+            @Value("${card.snapshot-cache.ttl:10m}") Duration ttl
+    ) {
+        this.cardRepository = cardRepository;
+        this.cardMapper = cardMapper;
+        this.cardBalanceService = cardBalanceService;
+        // Не readOnly: такие транзакции уходят на реплику, а снимок, загруженный сразу после сброса,
+        // не должен зависеть от её отставания
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CARD_SNAPSHOT_CACHE);
+    }
+
+    @Override
+    public CardSnapshot get(Long cardId) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return load(cardId);
+        }
+        CardSnapshot snapshot = cache.getIfPresent(cardId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        int stripe = stripe(cardId);
+        long evictionsBeforeLoad = evictions.get(stripe);
+        snapshot = loadTransaction.execute(status -> load(cardId));
+        cache.put(cardId, snapshot);
+        if (evictions.get(stripe) != evictionsBeforeLoad) {
+            cache.invalidate(cardId);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void evictAfterCommit(Collection<Long> cardIds) {
+        List<Long> ids = List.copyOf(cardIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(ids);
+            }
+        });
+    }
+
+    @Override
+    public void evictAll() {
+        for (int stripe = 0; stripe < EVICTION_STRIPES; stripe++) {
+            evictions.incrementAndGet(stripe);
+        }
+        cache.invalidateAll();
+    }
+
+    private void evict(List<Long> ids) {
+        ids.forEach(id -> evictions.incrementAndGet(stripe(id)));
+        cache.invalidateAll(ids);
+    }
+
+    private int stripe(Long cardId) {
+        return Math.floorMod(Long.hashCode(cardId), EVICTION_STRIPES);
+    }
+
+    private CardSnapshot load(Long cardId) {
+        Card card = cardRepository.findById(cardId).orElseThrow(
+                () -> new EntityNotFoundException("Карта с номером Id " + cardId + " отсутствует"));
+
+        return new CardSnapshot(cardMapper.mapToResponseDTO(card), cardBalanceService.getTotalBalance(card));
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.response.CardStatementResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardBalanceSnapshotState;
+import com.example.bankcards.entity.CardDailyBalance;
+import com.example.bankcards.entity.CardDailyBalanceId;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.CardBalanceSnapshotStateRepository;
+import com.example.bankcards.repository.CardDailyBalanceRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.CardBalanceService;
+import com.example.bankcards.service.CardStatementService;
+import com.example.bankcards.util.DateRanges;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Выписка по карте строится из дневных снимков (обороты карты за день с переводами) и сумм переводов
+ * за дни после водяного знака, которые ещё не посчитаны. Суммы считаются в БД, поэтому стоимость выписки
+ * зависит от длины периода и отставания задачи снимков, а не от того, сколько переводов было по карте.
+ * <p>
+ * Балансы не берутся из from/to_card_new_balance: порядок created_at не совпадает с порядком применения
+ * переводов. Баланс на конец периода - текущий баланс карты минус обороты после периода, на начало -
+ * баланс на конец минус обороты периода. Все чтения должны идти в одной транзакции REPEATABLE READ,
+ * чтобы баланс и суммы переводов были из одного снимка БД.
+ * Изменение баланса администратором (updateCard) переводом не является и в выписку не попадает:
+ * балансы периодов до него считаются так, как если бы текущий баланс был получен только переводами.
+ * <p>
+ * created_at ставится приложением до коммита, поэтому перевод за день D может стать видимым уже после
+ * полуночи (долгий пакетный перевод, асинхронная очередь, расхождение часов экземпляров). Снимок дня
+ * считается только через card.statement.snapshot.lag после его окончания: перевод, закоммиченный
+ * после снимка своего дня, не попал бы ни в снимок, ни в суммы после водяного знака.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CardStatementServiceImpl implements CardStatementService {
+
+    private static final Short STATE_ID = 1;
+
+    private final TransferRepository transferRepository;
+
+    private final CardDailyBalanceRepository cardDailyBalanceRepository;
+
+    private final CardBalanceSnapshotStateRepository snapshotStateRepository;
+
+    private final CardBalanceService cardBalanceService;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${card.statement.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${card.statement.snapshot.lag:1d}")
+    private Duration lag;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void snapshotOnStartup() {
+        if (enabled) {
+            snapshotClosedDays();
+        }
+    }
+
+    @Scheduled(cron = "${card.statement.snapshot.cron:0 5 0 * * *}")
+    public void snapshotOnSchedule() {
+        if (enabled) {
+            snapshotClosedDays();
+        }
+    }
+
+    @Override
+    public int snapshotClosedDays() {
+        LocalDate lastClosedDay = LocalDateTime.now().minus(lag).toLocalDate().minusDays(1);
+        int snapshotted = 0;
+
+        for (LocalDate day = firstPendingDay(); day != null && !day.isAfter(lastClosedDay); day = day.plusDays(1)) {
+            LocalDate current = day;
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> snapshotDay(current)))) {
+                snapshotted++;
+            }
+        }
+
+        if (snapshotted > 0) {
+            log.info("Посчитаны снимки балансов карт за {} дн.", snapshotted);
+        }
+        return snapshotted;
+    }
+
+    @Override
+    public CardStatementResponse getStatement(Card card, LocalDate from, LocalDate to) {
+        Long cardId = card.getId();
+        LocalDate snapshotted = lastSnapshotDate();
+        LocalDateTime periodEnd = DateRanges.endOf(to);
+        LocalDateTime pendingFrom = snapshotted != null ? snapshotted.plusDays(1).atStartOfDay() : DateRanges.startOf(null);
+
+        Statement statement = new Statement();
+        if (snapshotted != null && !from.isAfter(snapshotted)) {
+            LocalDate snapshotsTo = to.isBefore(snapshotted) ? to : snapshotted;
+            cardDailyBalanceRepository.findAllBetween(cardId, from, snapshotsTo).forEach(statement::addDay);
+        }
+
+        LocalDateTime periodPendingFrom = latest(DateRanges.startOf(from), pendingFrom);
+        if (periodPendingFrom.isBefore(periodEnd)) {
+            statement.totalIn = statement.totalIn.add(
+                    transferRepository.sumIncomingByCreatedAtRange(cardId, periodPendingFrom, periodEnd));
+            statement.totalOut = statement.totalOut.add(
+                    transferRepository.sumOutgoingByCreatedAtRange(cardId, periodPendingFrom, periodEnd));
+            statement.transferCount += (int) transferRepository.countByCardIdAndCreatedAtRange(
+                    cardId, periodPendingFrom, periodEnd);
+        }
+
+        BigDecimal closing = cardBalanceService.getTotalBalance(card).subtract(netAfter(cardId, to, snapshotted, pendingFrom));
+        BigDecimal opening = closing.subtract(statement.totalIn).add(statement.totalOut);
+
+        return CardStatementResponse.builder()
+                .cardId(cardId)
+                .from(from)
+                .to(to)
+                .openingBalance(opening)
+                .closingBalance(closing)
+                .totalIn(statement.totalIn)
+                .totalOut(statement.totalOut)
+                .transferCount(statement.transferCount)
+                .build();
+    }
+
+    /**
+     * Обороты карты после периода: из снимков за посчитанные дни, остальное - суммами переводов.
+     */
+    private BigDecimal netAfter(Long cardId, LocalDate to, LocalDate snapshotted, LocalDateTime pendingFrom) {
+        BigDecimal net = BigDecimal.ZERO;
+        if (snapshotted != null && to.isBefore(snapshotted)) {
+            net = net.add(cardDailyBalanceRepository.sumNetBetween(cardId, to.plusDays(1), snapshotted));
+        }
+
+        LocalDateTime afterFrom = latest(DateRanges.endOf(to), pendingFrom);
+        LocalDateTime afterTo = DateRanges.endOf(null);
+        return net
+                .add(transferRepository.sumIncomingByCreatedAtRange(cardId, afterFrom, afterTo))
+                .subtract(transferRepository.sumOutgoingByCreatedAtRange(cardId, afterFrom, afterTo));
+    }
+
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private LocalDate firstPendingDay() {
+        LocalDate snapshotted = lastSnapshotDate();
+        if (snapshotted != null) {
+            return snapshotted.plusDays(1);
+        }
+        return transferRepository.findMinCreatedAt().map(LocalDateTime::toLocalDate).orElse(null);
+    }
+
+    private LocalDate lastSnapshotDate() {
+        return snapshotStateRepository.findById(STATE_ID)
+                .map(CardBalanceSnapshotState::getLastSnapshotDate)
+                .orElse(null);
+    }
+
+    /**
+     * Строка состояния блокируется, поэтому несколько экземпляров приложения не посчитают один день дважды.
+     */
+    private boolean snapshotDay(LocalDate day) {
+        CardBalanceSnapshotState state = snapshotStateRepository.findByIdWithLock(STATE_ID)
+                .orElseGet(() -> snapshotStateRepository.save(new CardBalanceSnapshotState(STATE_ID, null)));
+
+        if (state.getLastSnapshotDate() != null && !day.isAfter(state.getLastSnapshotDate())) {
+            return false;
+        }
+
+        Map<Long, CardDailyBalance> balances = new HashMap<>();
+        try (Stream<Transfer> transfers = transferRepository.streamAllByCreatedAtRange(
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay())) {
+            transfers.forEach(transfer -> {
+                addToDay(balances, day, transfer.getFromCardId(), transfer.getAmount().negate());
+                addToDay(balances, day, transfer.getToCardId(), transfer.getAmount());
+                entityManager.detach(transfer);
+            });
+        }
+
+        balances.values().forEach(entityManager::persist);
+        state.setLastSnapshotDate(day);
+
+        log.debug("Снимки балансов за {}: {} карт", day, balances.size());
+        return true;
+    }
+
+    private void addToDay(Map<Long, CardDailyBalance> balances, LocalDate day, Long cardId, BigDecimal delta) {
+        CardDailyBalance balance = balances.computeIfAbsent(cardId, id -> CardDailyBalance.builder()
+                .id(new CardDailyBalanceId(id, day))
+                .totalIn(BigDecimal.ZERO)
+                .totalOut(BigDecimal.ZERO)
+                .transferCount(0)
+                .build());
+
+        if (delta.signum() > 0) {
+            balance.setTotalIn(balance.getTotalIn().add(delta));
+        } else {
+            balance.setTotalOut(balance.getTotalOut().subtract(delta));
+        }
+        balance.setTransferCount(balance.getTransferCount() + 1);
+    }
+
+    private static final class Statement {
+
+        private BigDecimal totalIn = BigDecimal.ZERO;
+
+        private BigDecimal totalOut = BigDecimal.ZERO;
+
+        private int transferCount;
+
+        private void addDay(CardDailyBalance day) {
+            totalIn = totalIn.add(day.getTotalIn());
+            totalOut = totalOut.add(day.getTotalOut());
+            transferCount += day.getTransferCount();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.event.TransferEvent;
+import com.example.bankcards.service.TransferEventSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * События дописываются в файл NDJSON: удобно для локальной проверки и тестов получателей.
+ */
+@Service
+@ConditionalOnProperty(name = "card.transfer.outbox.sink", havingValue = "file")
+public class FileTransferEventSink implements TransferEventSink {
+
+    private final ObjectMapper objectMapper;
+
+    private final Path path;
+
+    public FileTransferEventSink(ObjectMapper objectMapper,
+                                 @Value("${card.transfer.outbox.file.path:transfer-events.ndjson}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void publish(List<TransferEvent> events) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, CREATE, APPEND)) {
+            for (TransferEvent event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать события о переводах в " + path, e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.event.TransferEvent;
+import com.example.bankcards.service.TransferEventSink;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Получатель по умолчанию: события пишутся в журнал приложения, по строке JSON на событие.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "card.transfer.outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LogTransferEventSink implements TransferEventSink {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void publish(List<TransferEvent> events) {
+        for (TransferEvent event : events) {
+            try {
+                log.info("Событие о переводе: {}", objectMapper.writeValueAsString(event));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
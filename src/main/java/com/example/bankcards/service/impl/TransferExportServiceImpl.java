@@ -0,0 +1,130 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.enums.TransferExportFormat;
+import com.example.bankcards.dto.response.CardTransferResponse;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.TransferExportService;
+import com.example.bankcards.util.DateRanges;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка переводов без загрузки всей выборки в память: строки читаются потоком с fetch size,
+ * каждая сразу пишется в ответ и отсоединяется от контекста персистентности.
+ */
+@Slf4j
+@Service
+public class TransferExportServiceImpl implements TransferExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER =
+            "id,from_card_id,to_card_id,amount,from_card_new_balance,to_card_new_balance,description,created_at";
+
+    private final TransferRepository transferRepository;
+
+    private final TransferMapper transferMapper;
+
+    private final EntityManager entityManager;
+
+    private final ObjectWriter transferWriter;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TransferExportServiceImpl(TransferRepository transferRepository,
+                                     TransferMapper transferMapper,
+                                     EntityManager entityManager,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager) {
+        this.transferRepository = transferRepository;
+        this.transferMapper = transferMapper;
+        this.entityManager = entityManager;
+        this.transferWriter = objectMapper.writerFor(CardTransferResponse.class);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public long export(TransferExportFormat format, LocalDate from, LocalDate to, OutputStream outputStream) {
+        DateRanges.validate(from, to);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+
+        Long rows = readOnlyTransaction.execute(status -> {
+            try (Stream<Transfer> transfers = transferRepository.streamAllByCreatedAtRange(
+                    DateRanges.startOf(from), DateRanges.endOf(to))) {
+                if (format == TransferExportFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+
+                long written = 0;
+                for (Transfer transfer : (Iterable<Transfer>) transfers::iterator) {
+                    writeRow(format, transfer, writer);
+                    entityManager.detach(transfer);
+                    written++;
+                }
+                writer.flush();
+                return written;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Ошибка записи выгрузки переводов", e);
+            }
+        });
+
+        log.info("Выгрузка переводов в {} за период {} - {}: {} строк", format, from, to, rows);
+
+        return rows != null ? rows : 0;
+    }
+
+    private void writeRow(TransferExportFormat format, Transfer transfer, Writer writer) throws IOException {
+        if (format == TransferExportFormat.NDJSON) {
+            writer.write(transferWriter.writeValueAsString(transferMapper.toCardTransferResponse(transfer)));
+        } else {
+            writer.write(String.valueOf(transfer.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(transfer.getFromCardId()));
+            writer.write(',');
+            writer.write(String.valueOf(transfer.getToCardId()));
+            writer.write(',');
+            writer.write(transfer.getAmount().toPlainString());
+            writer.write(',');
+            writer.write(transfer.getFromCardNewBalance().toPlainString());
+            writer.write(',');
+            if (transfer.getToCardNewBalance() != null) {
+                writer.write(transfer.getToCardNewBalance().toPlainString());
+            }
+            writer.write(',');
+            writer.write(escapeCsv(transfer.getDescription()));
+            writer.write(',');
+            writer.write(String.valueOf(transfer.getCreatedAt()));
+        }
+        writer.write('\n');
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
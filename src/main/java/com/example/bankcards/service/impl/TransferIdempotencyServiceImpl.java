@@ -0,0 +1,154 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.request.CardTransferRequest;
+import com.example.bankcards.dto.response.CardTransferResponse;
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import com.example.bankcards.entity.TransferIdempotencyKeyId;
+import com.example.bankcards.exception.IdempotencyKeyMismatchException;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.repository.TransferIdempotencyKeyRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.TransferIdempotencyService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Хранилище ключей идемпотентности переводов: таблица transfer_idempotency_keys и LRU-кеш перед ней.
+ * В кеш попадают только закоммиченные переводы, поэтому повтор, найденный в кеше, не обращается к БД.
+ */
+@Slf4j
+@Service
+public class TransferIdempotencyServiceImpl implements TransferIdempotencyService {
+
+    private record CacheKey(Long userId, String idempotencyKey) {
+    }
+
+    private record StoredTransfer(String requestHash, CardTransferResponse response) {
+    }
+
+    private final TransferIdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final TransferRepository transferRepository;
+
+    private final TransferMapper transferMapper;
+
+    private final Duration retention;
+
+    private final Cache<CacheKey, StoredTransfer> cache;
+
+    public TransferIdempotencyServiceImpl(
+            TransferIdempotencyKeyRepository idempotencyKeyRepository,
+            TransferRepository transferRepository,
+            TransferMapper transferMapper,
+            @Value("${card.transfer.idempotency.cache-size:100000}") long cacheSize,
+            @Value("${card.transfer.idempotency.retention:24h}") Duration retention
+    ) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transferRepository = transferRepository;
+        this.transferMapper = transferMapper;
+        this.retention = retention;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    @Override
+    public Optional<CardTransferResponse> findCompleted(Long userId, String idempotencyKey,
+                                                        CardTransferRequest request) {
+        CacheKey cacheKey = new CacheKey(userId, idempotencyKey);
+        StoredTransfer stored = cache.getIfPresent(cacheKey);
+
+        if (stored == null) {
+            stored = idempotencyKeyRepository.findById(new TransferIdempotencyKeyId(userId, idempotencyKey))
+                    .filter(key -> key.getTransferId() != null)
+                    .flatMap(key -> transferRepository.findById(key.getTransferId())
+                            .map(transfer -> new StoredTransfer(key.getRequestHash(),
+                                    transferMapper.toCardTransferResponse(transfer))))
+                    .orElse(null);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            cache.put(cacheKey, stored);
+        }
+
+        checkSameRequest(stored.requestHash(), request);
+        return Optional.of(stored.response());
+    }
+
+    /**
+     * Единственное ограничение, которое может нарушить вставка, - первичный ключ (user_id, idempotency_key).
+     */
+    @Override
+    public boolean reserve(Long userId, String idempotencyKey, CardTransferRequest request) {
+        try {
+            idempotencyKeyRepository.insert(userId, idempotencyKey, requestHash(request), LocalDateTime.now());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void complete(Long userId, String idempotencyKey, CardTransferRequest request,
+                         CardTransferResponse response) {
+        idempotencyKeyRepository.complete(new TransferIdempotencyKeyId(userId, idempotencyKey),
+                response.getTransactionId());
+
+        StoredTransfer stored = new StoredTransfer(requestHash(request), response);
+        CacheKey cacheKey = new CacheKey(userId, idempotencyKey);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.put(cacheKey, stored);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${card.transfer.idempotency.cleanup-cron:0 30 * * * *}")
+    public int deleteExpired() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Удалено устаревших ключей идемпотентности: {}", deleted);
+        }
+        return deleted;
+    }
+
+    private void checkSameRequest(String storedHash, CardTransferRequest request) {
+        if (!storedHash.equals(requestHash(request))) {
+            throw new IdempotencyKeyMismatchException(
+                    "Ключ идемпотентности уже использован для другого перевода");
+        }
+    }
+
+    private String requestHash(CardTransferRequest request) {
+        String canonical = request.getFromCardId() + "|" + request.getToCardId() + "|"
+                + request.getAmount().stripTrailingZeros().toPlainString() + "|"
+                + Objects.toString(request.getDescription(), "");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.event.TransferEvent;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.TransferOutboxEvent;
+import com.example.bankcards.repository.TransferOutboxRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.TransferEventSink;
+import com.example.bankcards.service.TransferOutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.bankcards.constant.MetricConstant.CARD_TRANSFER_OUTBOX_BATCH;
+import static com.example.bankcards.constant.MetricConstant.CARD_TRANSFER_OUTBOX_LAG;
+import static com.example.bankcards.constant.MetricConstant.CARD_TRANSFER_OUTBOX_PUBLISHED;
+
+/**
+ * Outbox событий о переводах. В транзакции перевода добавляется одна вставка с id перевода;
+ * ретранслятор по расписанию разбирает outbox пачками, каждая в своей транзакции: события
+ * отправляются в {@link TransferEventSink}, отправленные строки удаляются. Сбой получателя
+ * откатывает пачку, и она уходит повторно в следующий запуск.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransferOutboxServiceImpl implements TransferOutboxService {
+
+    private final TransferOutboxRepository transferOutboxRepository;
+
+    private final TransferRepository transferRepository;
+
+    private final TransferEventSink transferEventSink;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${card.transfer.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${card.transfer.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private Timer batchTimer;
+
+    private Counter publishedCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        batchTimer = meterRegistry.timer(CARD_TRANSFER_OUTBOX_BATCH);
+        publishedCounter = meterRegistry.counter(CARD_TRANSFER_OUTBOX_PUBLISHED);
+        Gauge.builder(CARD_TRANSFER_OUTBOX_LAG, lagMillis, lag -> lag.get() / 1000.0)
+                .description("Возраст самого старого неотправленного события")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void append(List<Transfer> transfers) {
+        transferOutboxRepository.saveAll(transfers.stream()
+                .map(transfer -> TransferOutboxEvent.builder()
+                        .transferId(transfer.getId())
+                        .build())
+                .toList());
+    }
+
+    @Scheduled(fixedDelayString = "${card.transfer.outbox.relay.interval:1000}")
+    public void relayOnSchedule() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.error("Ретрансляция событий о переводах прервана: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int relay() {
+        int published = 0;
+        while (true) {
+            RelayedBatch batch = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+            if (batch == null || batch.rows() == 0) {
+                break;
+            }
+            published += batch.published();
+            if (batch.rows() < batchSize) {
+                break;
+            }
+        }
+
+        lagMillis.set(transferOutboxRepository.findFirstByOrderByIdAsc()
+                .map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+
+        if (published > 0) {
+            log.debug("Отправлено событий о переводах: {}", published);
+        }
+        return published;
+    }
+
+    private RelayedBatch relayBatch() {
+        List<TransferOutboxEvent> rows = transferOutboxRepository.lockNextBatch(batchSize);
+        if (rows.isEmpty()) {
+            return new RelayedBatch(0, 0);
+        }
+
+        Map<Long, Transfer> transfers = new HashMap<>();
+        transferRepository.findAllById(rows.stream().map(TransferOutboxEvent::getTransferId).toList())
+                .forEach(transfer -> transfers.put(transfer.getId(), transfer));
+
+        List<TransferEvent> events = rows.stream()
+                .filter(row -> transfers.containsKey(row.getTransferId()))
+                .map(row -> toEvent(row, transfers.get(row.getTransferId())))
+                .toList();
+
+        if (!events.isEmpty()) {
+            transferEventSink.publish(events);
+        }
+        transferOutboxRepository.deleteAllByIdInBatch(rows.stream().map(TransferOutboxEvent::getId).toList());
+        publishedCounter.increment(events.size());
+
+        return new RelayedBatch(rows.size(), events.size());
+    }
+
+    /**
+     * Строк outbox разобрано и событий отправлено: строки удалённых переводов удаляются без отправки.
+     */
+    private record RelayedBatch(int rows, int published) {
+    }
+
+    private TransferEvent toEvent(TransferOutboxEvent row, Transfer transfer) {
+        return TransferEvent.builder()
+                .eventId(row.getId())
+                .transferId(transfer.getId())
+                .fromCardId(transfer.getFromCardId())
+                .toCardId(transfer.getToCardId())
+                .amount(transfer.getAmount())
+                .fromCardNewBalance(transfer.getFromCardNewBalance())
+                .toCardNewBalance(transfer.getToCardNewBalance())
+                .description(transfer.getDescription())
+                .createdAt(transfer.getCreatedAt())
+                .build();
+    }
+}
@@ -3,11 +3,13 @@ package com.example.bankcards.service.impl;
 import com.example.bankcards.entity.enums.Role;
 import com.example.bankcards.exception.EntityAlreadyExistsException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.PrincipalCache;
 import com.example.bankcards.security.User;
 import com.example.bankcards.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -17,6 +19,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
+    private final PrincipalCache principalCache;
 
     public User save(User user) {
         return repository.save(user);
@@ -39,8 +42,20 @@ public class UserServiceImpl implements UserService {
     }
 
     public User getCurrentUser() {
-        var username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return getByUsername(username);
+        var context = SecurityContextHolder.getContext();
+        var authentication = context.getAuthentication();
+        if (authentication.getPrincipal() instanceof User user && user.getId() != null) {
+            return user;
+        }
+
+        // Контекст безопасности живёт в пределах запроса, поэтому загруженный пользователь
+        // сохраняется в нём и последующие вызовы в этом же запросе не обращаются к БД
+        var user = getByUsername(authentication.getName());
+        var resolved = new UsernamePasswordAuthenticationToken(
+                user, authentication.getCredentials(), authentication.getAuthorities());
+        resolved.setDetails(authentication.getDetails());
+        context.setAuthentication(resolved);
+        return user;
     }
 
     @Transactional
@@ -50,5 +65,6 @@ public class UserServiceImpl implements UserService {
         );
         user.setRole(Role.ROLE_ADMIN);
         save(user);
+        principalCache.evict(user.getUsername());
     }
 }
@@ -0,0 +1,61 @@
+package com.example.bankcards.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Непрозрачный курсор для keyset-пагинации: значения ключа последней строки страницы,
+ * склеенные через '|' и закодированные в base64url.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private static final String INVALID_CURSOR = "Некорректный курсор страницы";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... values) {
+        String raw = Arrays.stream(values)
+                .map(String::valueOf)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR, e);
+        }
+
+        String[] parts = raw.split(Pattern.quote(SEPARATOR), -1);
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        }
+        return parts;
+    }
+
+    public static String encodeId(Long id) {
+        return encode(id);
+    }
+
+    /**
+     * null или пустой курсор - первая страница, ей соответствует id 0.
+     */
+    public static long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR, e);
+        }
+    }
+}
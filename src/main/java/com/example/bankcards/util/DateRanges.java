@@ -0,0 +1,32 @@
+package com.example.bankcards.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Перевод периода из дат запроса (обе включительно, любая может отсутствовать)
+ * в полуинтервал [start, end) по времени создания записи.
+ */
+public final class DateRanges {
+
+    private static final LocalDateTime OPEN_START = LocalDate.of(1970, 1, 1).atStartOfDay();
+
+    private static final LocalDateTime OPEN_END = LocalDate.of(9999, 1, 1).atStartOfDay();
+
+    private DateRanges() {
+    }
+
+    public static LocalDateTime startOf(LocalDate from) {
+        return from != null ? from.atStartOfDay() : OPEN_START;
+    }
+
+    public static LocalDateTime endOf(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay() : OPEN_END;
+    }
+
+    public static void validate(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Дата начала периода позже даты окончания");
+        }
+    }
+}
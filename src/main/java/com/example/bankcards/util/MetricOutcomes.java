@@ -0,0 +1,45 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.exception.EntityAlreadyExistsException;
+import com.example.bankcards.exception.InactiveCardException;
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.TransferConflictException;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.security.access.AccessDeniedException;
+
+/**
+ * Значение тега outcome по исключению, с которым завершилась операция.
+ * Набор значений конечен, чтобы не плодить временные ряды по текстам ошибок.
+ */
+public final class MetricOutcomes {
+
+    public static final String SUCCESS = "success";
+
+    private MetricOutcomes() {
+    }
+
+    public static String of(Throwable e) {
+        if (e instanceof InsufficientFundsException) {
+            return "insufficient_funds";
+        }
+        if (e instanceof InactiveCardException) {
+            return "inactive_card";
+        }
+        if (e instanceof AccessDeniedException) {
+            return "access_denied";
+        }
+        if (e instanceof EntityNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof EntityAlreadyExistsException) {
+            return "already_exists";
+        }
+        if (e instanceof TransferConflictException) {
+            return "conflict";
+        }
+        if (e instanceof IllegalArgumentException) {
+            return "invalid_request";
+        }
+        return "error";
+    }
+}
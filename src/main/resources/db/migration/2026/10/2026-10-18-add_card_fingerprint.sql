@@ -0,0 +1,15 @@
+--liquibase formatted sql
+
+-- Отпечаток HMAC-SHA256 номера карты (hex, 64 символа) для поиска дубликатов без сравнения шифртекста.
+-- Существующие карты заполняет CardFingerprintBackfillService при старте приложения.
+
+--changeset bankcards:2026-10-18-cards-card-fingerprint
+ALTER TABLE cards ADD COLUMN IF NOT EXISTS card_fingerprint VARCHAR(64);
+--rollback ALTER TABLE cards DROP COLUMN IF EXISTS card_fingerprint;
+
+-- Индекс строится без блокировки записи в cards. Если построение прервалось, PostgreSQL оставляет
+-- индекс INVALID: его нужно удалить вручную, иначе IF NOT EXISTS пропустит повторное создание.
+
+--changeset bankcards:2026-10-18-idx-cards-card-fingerprint runInTransaction:false
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_card_fingerprint ON cards (card_fingerprint);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_cards_card_fingerprint;
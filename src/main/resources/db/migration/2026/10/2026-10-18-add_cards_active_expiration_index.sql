@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+-- Частичный индекс для задачи истечения срока карт: в нём только ACTIVE карты, поэтому он маленький,
+-- а уже переведённые в EXPIRED карты из него выпадают.
+
+--changeset bankcards:2026-10-18-idx-cards-active-expiration runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_active_expiration_date ON cards (expiration_date) WHERE status = 'ACTIVE';
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_cards_active_expiration_date;
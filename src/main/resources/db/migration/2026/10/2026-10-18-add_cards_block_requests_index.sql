@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+-- Очередь запросов на блокировку: частичный индекс содержит только карты в REQUEST_FOR_BLOCKING.
+
+--changeset bankcards:2026-10-18-idx-cards-block-requests runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_block_requests_id ON cards (id) WHERE status = 'REQUEST_FOR_BLOCKING';
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_cards_block_requests_id;
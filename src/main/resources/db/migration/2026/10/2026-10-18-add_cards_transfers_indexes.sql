@@ -0,0 +1,20 @@
+--liquibase formatted sql
+
+-- Индексы строятся CONCURRENTLY, чтобы не блокировать запись в рабочие таблицы;
+-- такой CREATE INDEX нельзя выполнять в транзакции, поэтому runInTransaction:false.
+
+--changeset bankcards:2026-10-18-idx-cards-user-id runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_user_id_id ON cards (user_id, id);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_cards_user_id_id;
+
+--changeset bankcards:2026-10-18-idx-cards-last-four-digits runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_last_four_digits_id ON cards (last_four_digits, id);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_cards_last_four_digits_id;
+
+--changeset bankcards:2026-10-18-idx-transfers-from-card runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transfers_from_card_id_created_at ON transfers (from_card_id, created_at);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_transfers_from_card_id_created_at;
+
+--changeset bankcards:2026-10-18-idx-transfers-to-card runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transfers_to_card_id_created_at ON transfers (to_card_id, created_at);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_transfers_to_card_id_created_at;
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+-- Снимки балансов и выгрузка читают переводы за период по created_at целиком, без фильтра по карте.
+
+--changeset bankcards:2026-10-18-idx-transfers-created-at runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transfers_created_at_id ON transfers (created_at, id);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_transfers_created_at_id;
@@ -0,0 +1,15 @@
+-- Горячие карты: баланс делится на cards.balance и слоты, зачисления распределяются по слотам,
+-- чтобы не выстраиваться в очередь на блокировке одной строки cards.
+ALTER TABLE cards ADD COLUMN IF NOT EXISTS balance_slots INTEGER CHECK (balance_slots > 0);
+
+CREATE TABLE IF NOT EXISTS card_balance_slots (
+    card_id BIGINT NOT NULL,
+    slot INTEGER NOT NULL,
+    balance DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+
+    PRIMARY KEY (card_id, slot),
+
+    CONSTRAINT fk_card_balance_slots_card FOREIGN KEY (card_id)
+        REFERENCES cards(id)
+        ON DELETE CASCADE
+);
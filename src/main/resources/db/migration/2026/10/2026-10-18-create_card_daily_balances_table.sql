@@ -0,0 +1,24 @@
+-- Дневные снимки баланса карт для выписок: строка на карту за каждый день, в который по ней были переводы.
+CREATE TABLE IF NOT EXISTS card_daily_balances (
+    card_id BIGINT NOT NULL,
+    balance_date DATE NOT NULL,
+    opening_balance DECIMAL(15,2) NOT NULL,
+    closing_balance DECIMAL(15,2) NOT NULL,
+    total_in DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    total_out DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    transfer_count INTEGER NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (card_id, balance_date),
+
+    CONSTRAINT fk_card_daily_balances_card FOREIGN KEY (card_id)
+        REFERENCES cards(id)
+        ON DELETE CASCADE
+);
+
+-- Водяной знак: последний день, за который снимки уже посчитаны.
+CREATE TABLE IF NOT EXISTS card_balance_snapshot_state (
+    id SMALLINT PRIMARY KEY,
+    last_snapshot_date DATE
+);
+
+INSERT INTO card_balance_snapshot_state (id, last_snapshot_date) VALUES (1, NULL);
@@ -0,0 +1,19 @@
+-- Ключи идемпотентности переводов: повтор запроса с тем же ключом возвращает сохранённый перевод.
+-- Ключ уникален в пределах пользователя; строка вставляется в транзакции перевода до блокировки карт,
+-- поэтому параллельный дубль ждёт на первичном ключе и не списывает средства второй раз.
+CREATE TABLE IF NOT EXISTS transfer_idempotency_keys (
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    transfer_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (user_id, idempotency_key),
+
+    CONSTRAINT fk_transfer_idempotency_keys_transfer FOREIGN KEY (transfer_id)
+        REFERENCES transfers(id)
+        ON DELETE CASCADE
+);
+
+-- Очистка устаревших ключей идёт по времени создания
+CREATE INDEX IF NOT EXISTS idx_transfer_idempotency_keys_created_at ON transfer_idempotency_keys (created_at);
@@ -0,0 +1,12 @@
+-- Outbox событий о переводах: строка пишется в транзакции перевода, ретранслятор читает пачки
+-- через FOR UPDATE SKIP LOCKED, отправляет события и удаляет отправленные строки.
+-- Хранится только id перевода: данные события берутся из transfers при отправке, поэтому
+-- в транзакцию перевода добавляется одна короткая вставка. Внешнего ключа нет, чтобы вставка
+-- не проверяла transfers; строки удалённых переводов ретранслятор удаляет без отправки.
+CREATE SEQUENCE IF NOT EXISTS transfer_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS transfer_outbox (
+    id BIGINT PRIMARY KEY DEFAULT nextval('transfer_outbox_id_seq'),
+    transfer_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,25 @@
+-- Переводы, принятые на асинхронное исполнение: строка создаётся при приёме запроса (202),
+-- исполнитель партиции по карте отправителя применяет их пачками и проставляет результат.
+-- Необработанные (PENDING) строки после перезапуска приложения снова ставятся в очередь.
+CREATE SEQUENCE IF NOT EXISTS transfer_submissions_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS transfer_submissions (
+    id BIGINT PRIMARY KEY DEFAULT nextval('transfer_submissions_id_seq'),
+    user_id BIGINT NOT NULL,
+    from_card_id BIGINT NOT NULL,
+    to_card_id BIGINT NOT NULL,
+    amount DECIMAL(15,2) NOT NULL,
+    description TEXT,
+    status VARCHAR(20) NOT NULL,
+    transfer_id BIGINT,
+    error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP,
+
+    CONSTRAINT fk_transfer_submissions_transfer FOREIGN KEY (transfer_id)
+        REFERENCES transfers(id)
+        ON DELETE SET NULL
+);
+
+-- Восстановление очереди при старте: только необработанные строки
+CREATE INDEX IF NOT EXISTS idx_transfer_submissions_pending ON transfer_submissions (id) WHERE status = 'PENDING';
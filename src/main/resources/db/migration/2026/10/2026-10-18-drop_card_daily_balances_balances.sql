@@ -0,0 +1,5 @@
+-- Балансы на начало и конец периода выписки считаются от текущего баланса карты и сумм переводов,
+-- а не из *_card_new_balance последнего перевода дня: порядок created_at не совпадает с порядком
+-- применения переводов. Дневные снимки хранят только обороты.
+ALTER TABLE card_daily_balances DROP COLUMN IF EXISTS opening_balance;
+ALTER TABLE card_daily_balances DROP COLUMN IF EXISTS closing_balance;
@@ -0,0 +1,2 @@
+-- Зачисление в слот горячей карты не блокирует её строку, точный баланс получателя после него неизвестен.
+ALTER TABLE transfers ALTER COLUMN to_card_new_balance DROP NOT NULL;
@@ -0,0 +1,8 @@
+-- Card и Transfer получают id через pooled-оптимизатор Hibernate (allocationSize = 50):
+-- одно обращение к последовательности резервирует 50 значений, вставки можно отправлять пакетами.
+-- Шаг последовательности обязан совпадать с allocationSize в @SequenceGenerator.
+-- Вставки через DEFAULT nextval (перевод одним запросом) получают верхнюю границу блока,
+-- который Hibernate уже не выдаёт, поэтому id не пересекаются.
+ALTER SEQUENCE cards_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE transfers_id_seq INCREMENT BY 50;
@@ -0,0 +1,115 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.service.impl.CardEncryptionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение шифрования номера карты: прежний вариант (SecretKeySpec и Cipher.getInstance на каждый вызов)
+ * против CardEncryptionServiceImpl с пулом инициализированных шифров.
+ * Варианты OnNewVirtualThread повторяют обработку запроса на виртуальных потоках: каждый вызов
+ * на новом потоке, поэтому кеш по потокам здесь ничего бы не дал.
+ * Запуск на 1, 8 и 32 потоках: main этого класса.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardEncryptionBenchmark {
+
+    private static final String ALGORITHM = "AES";
+    private static final String TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String KEY = "1234567890123456";
+    private static final String FINGERPRINT_KEY = "fingerprint-benchmark-key";
+    private static final String CARD_NUMBER = "4111111111111111";
+
+    private CardEncryptionServiceImpl cardEncryptionService;
+
+    private String encryptedCardNumber;
+
+    @Setup
+    public void setUp() {
+        cardEncryptionService = new CardEncryptionServiceImpl(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cardEncryptionService, "algorithm", ALGORITHM);
+        ReflectionTestUtils.setField(cardEncryptionService, "transformation", TRANSFORMATION);
+        ReflectionTestUtils.setField(cardEncryptionService, "encryptionKey", KEY);
+        ReflectionTestUtils.setField(cardEncryptionService, "fingerprintKey", FINGERPRINT_KEY);
+        cardEncryptionService.init();
+
+        encryptedCardNumber = cardEncryptionService.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String encryptPerCallCipher() throws Exception {
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(CARD_NUMBER.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public String encryptCachedCipher() {
+        return cardEncryptionService.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String encryptPerCallCipherOnNewVirtualThread() throws Exception {
+        return onNewVirtualThread(this::encryptPerCallCipher);
+    }
+
+    @Benchmark
+    public String encryptCachedCipherOnNewVirtualThread() throws Exception {
+        return onNewVirtualThread(this::encryptCachedCipher);
+    }
+
+    @Benchmark
+    public String decryptPerCallCipher() throws Exception {
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        return new String(cipher.doFinal(Base64.getDecoder().decode(encryptedCardNumber)), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String decryptCachedCipher() {
+        return cardEncryptionService.decrypt(encryptedCardNumber);
+    }
+
+    private static String onNewVirtualThread(Callable<String> task) throws Exception {
+        FutureTask<String> result = new FutureTask<>(task);
+        Thread.startVirtualThread(result).join();
+        return result.get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 8, 32}) {
+            Options options = new OptionsBuilder()
+                    .include(CardEncryptionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.CreditCardServiceApplication;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Вставка карт пачками по {@value #ROWS_PER_INVOCATION} строк через saveAll: hibernate.jdbc.batch_size = 1
+ * (каждая вставка отдельным запросом) против пакетной отправки. Результат - вставок в секунду.
+ * По умолчанию работает на H2 из профиля test; для PostgreSQL достаточно передать
+ * -Dspring.datasource.url/username/password через -jvmArgs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardInsertBenchmark {
+
+    private static final int ROWS_PER_INVOCATION = 200;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private CardRepository cardRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Long ownerId;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CreditCardServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--card.fingerprint.backfill.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.bankcards=WARN",
+                        "--logging.level.org.springframework.security=WARN"
+                );
+
+        cardRepository = context.getBean(CardRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        ownerId = context.getBean(UserRepository.class).save(User.builder()
+                .username("benchmark-" + System.nanoTime())
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public Object insertCards() {
+        List<Card> cards = new ArrayList<>(ROWS_PER_INVOCATION);
+        for (int i = 0; i < ROWS_PER_INVOCATION; i++) {
+            long number = sequence.incrementAndGet();
+            cards.add(Card.builder()
+                    .encryptedCardNumber("benchmark-" + ownerId + "-" + batchSize + "-" + number)
+                    .lastFourDigits(String.format("%04d", number % 10000))
+                    .clientId(ownerId)
+                    .expirationDate(LocalDate.now().plusYears(2))
+                    .status(CardStatus.ACTIVE)
+                    .balance(BigDecimal.ZERO)
+                    .build());
+        }
+        return transactionTemplate.execute(status -> cardRepository.saveAll(cards));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.CreditCardServiceApplication;
+import com.example.bankcards.dto.request.CardTransferRequest;
+import com.example.bankcards.dto.request.UpdateCardRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.User;
+import com.example.bankcards.service.CardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Зачисления на одну горячую карту из многих потоков, у каждого потока своя карта отправителя.
+ * slots = 0 - обычная карта (все зачисления ждут блокировку одной строки), иначе - баланс по слотам.
+ * По умолчанию работает на H2 из профиля test; для PostgreSQL достаточно передать
+ * -Dspring.datasource.url/username/password через -jvmArgs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class HotCardCreditBenchmark {
+
+    @Param({"0", "16"})
+    private int slots;
+
+    private ConfigurableApplicationContext context;
+
+    private CardService cardService;
+
+    private CardRepository cardRepository;
+
+    private User owner;
+
+    private Long hotCardId;
+
+    private final AtomicInteger sourceCards = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CreditCardServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(
+                        "--spring.jpa.show-sql=false",
+                        "--card.transfer.striped-credits=" + (slots > 0),
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.bankcards=WARN",
+                        "--logging.level.org.springframework.security=WARN"
+                );
+
+        cardService = context.getBean(CardService.class);
+        cardRepository = context.getBean(CardRepository.class);
+
+        owner = context.getBean(UserRepository.class).save(User.builder()
+                .username("benchmark-" + System.nanoTime())
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build());
+
+        hotCardId = saveCard("hot").getId();
+        if (slots > 0) {
+            cardService.updateCard(hotCardId, UpdateCardRequest.builder().balanceSlots(slots).build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Card saveCard(String suffix) {
+        return cardRepository.save(Card.builder()
+                .encryptedCardNumber("benchmark-" + owner.getId() + "-" + suffix)
+                .lastFourDigits("0000")
+                .clientId(owner.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("1000000000.00"))
+                .build());
+    }
+
+    @State(Scope.Thread)
+    public static class Source {
+
+        private Long cardId;
+
+        @Setup(Level.Trial)
+        public void setUp(HotCardCreditBenchmark benchmark) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    benchmark.owner, null, benchmark.owner.getAuthorities()));
+            cardId = benchmark.saveCard("source-" + benchmark.sourceCards.incrementAndGet()).getId();
+        }
+    }
+
+    @Benchmark
+    public Object creditHotCard(Source source) {
+        return cardService.transferBetweenCards(CardTransferRequest.builder()
+                .fromCardId(source.cardId)
+                .toCardId(hotCardId)
+                .amount(BigDecimal.ONE)
+                .build());
+    }
+}
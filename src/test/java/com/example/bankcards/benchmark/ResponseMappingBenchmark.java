@@ -0,0 +1,117 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CardTransferResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.mapper.impl.CardMapperImpl;
+import com.example.bankcards.mapper.impl.TransferMapperImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подготовка ответа без обращения к БД: маппинг сущностей в DTO и сериализация CardResponse
+ * и страницы карт в JSON тем же ObjectMapper, что собирает Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"20"})
+    private int pageSize;
+
+    private final CardMapperImpl cardMapper = new CardMapperImpl();
+
+    private final TransferMapperImpl transferMapper = new TransferMapperImpl();
+
+    private ObjectMapper objectMapper;
+
+    private Card card;
+
+    private Transfer transfer;
+
+    private CardResponse cardResponse;
+
+    private Page<CardResponse> cardPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        card = Card.builder()
+                .id(1L)
+                .encryptedCardNumber("encrypted")
+                .lastFourDigits("1111")
+                .clientId(1L)
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("1000.00"))
+                .build();
+
+        transfer = Transfer.builder()
+                .id(1L)
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(new BigDecimal("10.00"))
+                .fromCardNewBalance(new BigDecimal("990.00"))
+                .toCardNewBalance(new BigDecimal("510.00"))
+                .description("Перевод")
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        cardResponse = cardMapper.mapToResponseDTO(card);
+
+        List<CardResponse> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(cardResponse);
+        }
+        cardPage = new PageImpl<>(content, PageRequest.of(0, pageSize), 1000);
+    }
+
+    @Benchmark
+    public CardResponse mapCard() {
+        return cardMapper.mapToResponseDTO(card);
+    }
+
+    @Benchmark
+    public CardTransferResponse mapTransfer() {
+        return transferMapper.toCardTransferResponse(transfer);
+    }
+
+    @Benchmark
+    public byte[] serializeCard() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cardResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeCardPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cardPage);
+    }
+}
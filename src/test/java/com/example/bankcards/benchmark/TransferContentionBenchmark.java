@@ -0,0 +1,125 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.CreditCardServiceApplication;
+import com.example.bankcards.dto.request.CardTransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.User;
+import com.example.bankcards.service.CardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Переводы из многих потоков внутри небольшого набора "горячих" карт.
+ * По умолчанию работает на H2 из профиля test; для PostgreSQL достаточно передать
+ * -Dspring.datasource.url/username/password через -jvmArgs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class TransferContentionBenchmark {
+
+    @Param({"4"})
+    private int hotCards;
+
+    private ConfigurableApplicationContext context;
+
+    private CardService cardService;
+
+    private User owner;
+
+    private final List<Long> cardIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CreditCardServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.bankcards=WARN",
+                        "--logging.level.org.springframework.security=WARN"
+                );
+
+        cardService = context.getBean(CardService.class);
+        CardRepository cardRepository = context.getBean(CardRepository.class);
+
+        owner = context.getBean(UserRepository.class).save(User.builder()
+                .username("benchmark-" + System.nanoTime())
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build());
+
+        for (int i = 0; i < hotCards; i++) {
+            Card card = cardRepository.save(Card.builder()
+                    .encryptedCardNumber("benchmark-" + owner.getId() + "-" + i)
+                    .lastFourDigits(String.format("%04d", i))
+                    .clientId(owner.getId())
+                    .expirationDate(LocalDate.now().plusYears(2))
+                    .status(CardStatus.ACTIVE)
+                    .balance(new BigDecimal("1000000000.00"))
+                    .build());
+            cardIds.add(card.getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Principal {
+
+        @Setup(Level.Trial)
+        public void authenticate(TransferContentionBenchmark benchmark) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    benchmark.owner, null, benchmark.owner.getAuthorities()));
+        }
+    }
+
+    @Benchmark
+    public Object transferAmongHotCards(Principal principal) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(cardIds.size());
+        int to = (from + 1 + random.nextInt(cardIds.size() - 1)) % cardIds.size();
+
+        return cardService.transferBetweenCards(CardTransferRequest.builder()
+                .fromCardId(cardIds.get(from))
+                .toCardId(cardIds.get(to))
+                .amount(BigDecimal.ONE)
+                .build());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.bankcards.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BulkheadDataSource bulkheadDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkheadDataSource = new BulkheadDataSource(targetDataSource, 1, 10, Duration.ofMillis(50), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Все разрешения заняты - по таймауту отказ без обращения к пулу")
+    void whenAllPermitsTakenThenRejectAfterTimeout() throws Exception {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+
+        Connection first = bulkheadDataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> bulkheadDataSource.getConnection());
+        verify(targetDataSource, times(1)).getConnection();
+        assertEquals(1.0, meterRegistry.get("db.bulkhead.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("db.bulkhead.active").gauge().value());
+
+        first.close();
+    }
+
+    @Test
+    @DisplayName("Закрытие соединения возвращает разрешение один раз, даже при повторном close")
+    void whenConnectionClosedThenPermitReleasedOnce() throws Exception {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+
+        Connection first = bulkheadDataSource.getConnection();
+        first.close();
+        first.close();
+
+        Connection second = bulkheadDataSource.getConnection();
+        assertNotNull(second);
+        assertThrows(SQLTransientConnectionException.class, () -> bulkheadDataSource.getConnection());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Пул не выдал соединение - разрешение возвращается")
+    void whenTargetFailsThenPermitReleased() throws Exception {
+        when(targetDataSource.getConnection())
+                .thenThrow(new SQLException("connection refused"))
+                .thenReturn(connection);
+
+        assertThrows(SQLException.class, () -> bulkheadDataSource.getConnection());
+
+        assertNotNull(bulkheadDataSource.getConnection());
+        assertEquals(0.0, meterRegistry.get("db.bulkhead.rejected").counter().count());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.bankcards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Маршрутизация на двух базах H2: в каждой таблица с её именем, запрос показывает, куда ушло соединение.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DataSource primary;
+
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        primary = database("routing_primary", "primary");
+        replica = database("routing_replica", "replica");
+    }
+
+    @Test
+    @DisplayName("readOnly-транзакция читает из реплики, остальные - из основной БД")
+    void whenReadOnlyTransactionThenReplicaUsed() {
+        DataSource dataSource = routing(replica);
+        // LazyConnectionDataSourceProxy при создании читает настройки соединения по умолчанию из основной БД
+        double primaryBefore = meterRegistry.get("db.routing.connections").tag("target", "primary").counter().count();
+
+        assertEquals("replica", currentDatabase(dataSource, true));
+        assertEquals("primary", currentDatabase(dataSource, false));
+        assertEquals(1.0, meterRegistry.get("db.routing.connections").tag("target", "replica").counter().count());
+        assertEquals(primaryBefore + 1,
+                meterRegistry.get("db.routing.connections").tag("target", "primary").counter().count());
+    }
+
+    @Test
+    @DisplayName("Реплика не выдаёт соединение - readOnly-транзакция выполняется на основной БД")
+    void whenReplicaUnavailableThenFallbackToPrimaryUntilRetry() {
+        JdbcDataSource missingReplica = new JdbcDataSource();
+        missingReplica.setURL("jdbc:h2:mem:routing_missing;IFEXISTS=TRUE");
+        DataSource dataSource = routing(missingReplica);
+
+        assertEquals("primary", currentDatabase(dataSource, true));
+        assertEquals("primary", currentDatabase(dataSource, true));
+        // Вторая readOnly-транзакция в пределах retry-after к реплике уже не обращается
+        assertEquals(1.0, meterRegistry.get("db.routing.fallback").counter().count());
+    }
+
+    @Test
+    @DisplayName("Реплика не настроена - все транзакции на основной БД")
+    void whenReplicaNotConfiguredThenPrimaryUsed() {
+        DataSource dataSource = routing(null);
+
+        assertEquals("primary", currentDatabase(dataSource, true));
+        assertEquals(0.0, meterRegistry.get("db.routing.fallback").counter().count());
+    }
+
+    @Test
+    @DisplayName("JPA: каждая транзакция выбирает базу заново, запись после readOnly-чтения идёт в основную БД")
+    void whenJpaTransactionsInSameThreadThenEachRoutedByReadOnlyFlag() {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(routing(replica));
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(ReadReplicaRoutingDataSourceTest.class.getPackageName());
+        factoryBean.afterPropertiesSet();
+        try {
+            JpaTransactionManager transactionManager = new JpaTransactionManager(factoryBean.getObject());
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factoryBean.getObject());
+
+            assertEquals("replica", currentDatabase(transactionManager, entityManager, true));
+            assertEquals("primary", currentDatabase(transactionManager, entityManager, false));
+            assertEquals("replica", currentDatabase(transactionManager, entityManager, true));
+        } finally {
+            factoryBean.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Закрытие контекста закрывает оба пула Hikari")
+    void whenContextClosedThenPoolsClosed() {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1");
+        properties.setUsername("sa");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("db.replica.url", "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1")
+                .withProperty("db.replica.username", "sa")
+                .withProperty("db.bulkhead.enabled", "false");
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean(DataSource.class, () ->
+                new ReadReplicaDataSourceConfiguration().dataSource(properties, environment, meterRegistry));
+        context.refresh();
+
+        DataSource dataSource = context.getBean(DataSource.class);
+        List<HikariDataSource> pools = ((ReadReplicaDataSourceConfiguration.PooledDataSourceProxy) dataSource).getPools();
+        assertEquals("replica", currentDatabase(dataSource, true));
+        assertEquals("primary", currentDatabase(dataSource, false));
+        assertEquals(2, pools.size());
+        assertFalse(pools.stream().anyMatch(HikariDataSource::isClosed));
+
+        context.close();
+
+        assertTrue(pools.stream().allMatch(HikariDataSource::isClosed));
+    }
+
+    private DataSource routing(DataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primary, replicaDataSource, Duration.ofMinutes(1), meterRegistry));
+    }
+
+    private String currentDatabase(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM database_name", String.class));
+    }
+
+    private String currentDatabase(PlatformTransactionManager transactionManager, EntityManager entityManager,
+                                   boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                (String) entityManager.createNativeQuery("SELECT name FROM database_name").getSingleResult());
+    }
+
+    private DataSource database(String databaseName, String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1");
+        // Тот же пользователь, что у пулов Hikari: DB_CLOSE_DELAY оставляет базу жить, и H2 проверяет логин
+        dataSource.setUser("sa");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS database_name (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM database_name");
+        jdbcTemplate.update("INSERT INTO database_name (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
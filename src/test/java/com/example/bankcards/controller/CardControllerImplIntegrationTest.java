@@ -2,6 +2,10 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.BaseIntegrationTest;
 import com.example.bankcards.constant.ApiConstant;
+import com.example.bankcards.dto.enums.BatchTransferMode;
+import com.example.bankcards.dto.enums.BlockRequestDecision;
+import com.example.bankcards.dto.request.BlockRequestDecisionRequest;
+import com.example.bankcards.dto.request.CardBatchTransferRequest;
 import com.example.bankcards.dto.request.CardTransferRequest;
 import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.request.UpdateCardRequest;
@@ -12,6 +16,7 @@ import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.User;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -29,10 +34,15 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -90,6 +100,35 @@ class CardControllerImplIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.status").value("ACTIVE"));
     }
 
+    @Test
+    @DisplayName("Импорт карт из CSV - корректные строки созданы, по остальным ошибки с номером строки")
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void whenAdminImportsCsvThenValidRowsAreCreatedAndErrorsReported() throws Exception {
+        String csv = String.join("\n",
+                "card_number,client_id,expiration_date,balance",
+                "4111111111111111," + testUser.getId() + ",2030-01-01,100.00",
+                "4222222222222222," + testAdmin.getId() + ",2030-01-01,0",
+                "4111111111111111," + testUser.getId() + ",2030-01-01,100.00",
+                "4333333333333333,999999,2030-01-01,100.00",
+                "4444444444444444," + testUser.getId() + ",not-a-date,100.00",
+                "123," + testUser.getId() + ",2030-01-01,100.00");
+
+        mockMvc.perform(post(CARD_BASE_URL + ApiConstant.IMPORT)
+                        .param("format", "CSV")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(6))
+                .andExpect(jsonPath("$.importedCount").value(2))
+                .andExpect(jsonPath("$.failedCount").value(4))
+                .andExpect(jsonPath("$.errors[0].line").value(4))
+                .andExpect(jsonPath("$.errors[1].line").value(5))
+                .andExpect(jsonPath("$.errors[2].line").value(6))
+                .andExpect(jsonPath("$.errors[3].line").value(7));
+
+        assertEquals(2, cardRepository.count());
+    }
+
     @Test
     @DisplayName("Создание карты обычным пользователем - возвращает ошибку 403")
     @WithMockUser(username = "testuser", roles = {"USER"})
@@ -239,6 +278,52 @@ class CardControllerImplIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.content[1].balance").value(2000));
     }
 
+    @Test
+    @DisplayName("Получение карт пользователя по курсору - страницы идут по id без пропусков и повторов")
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void whenUserWalksOwnCardsByCursorThenAllCardsAreReturnedOnce() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            cardRepository.save(Card.builder()
+                    .encryptedCardNumber("encrypted" + i)
+                    .lastFourDigits("000" + i)
+                    .clientId(testUser.getId())
+                    .expirationDate(LocalDate.now().plusYears(2))
+                    .status(CardStatus.ACTIVE)
+                    .balance(BigDecimal.valueOf(i * 100L))
+                    .build());
+        }
+
+        MvcResult firstPage = mockMvc.perform(get(CARD_BASE_URL + ApiConstant.SEEK + ApiConstant.GET_ALL + "/user/{userId}", testUser.getId())
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].balance").value(100))
+                .andExpect(jsonPath("$.content[1].balance").value(200))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn();
+
+        String nextCursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get(CARD_BASE_URL + ApiConstant.SEEK + ApiConstant.GET_ALL + "/user/{userId}", testUser.getId())
+                        .param("size", "2")
+                        .param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].balance").value(300))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Получение карт по испорченному курсору - возвращает ошибку")
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void whenAdminPassesMalformedCursorThenReturnBadRequest() throws Exception {
+        mockMvc.perform(get(CARD_BASE_URL + ApiConstant.SEEK + ApiConstant.GET_ALL)
+                        .param("after", "not-a-cursor!"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Получение всех карт пользователя - успешное получение")
     @WithMockUser(username = "testuser", roles = {"USER"})
@@ -387,6 +472,329 @@ class CardControllerImplIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.toCardNewBalance").value(800));
     }
 
+    @Test
+    @DisplayName("Повтор перевода с тем же ключом идемпотентности - тот же ответ, списание один раз")
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void whenTransferRepeatedWithSameIdempotencyKeyThenDebitedOnce() throws Exception {
+        Card fromCard = cardRepository.save(Card.builder()
+                .encryptedCardNumber("encrypted1111")
+                .lastFourDigits("1111")
+                .clientId(testUser.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(2000))
+                .build());
+        Card toCard = cardRepository.save(Card.builder()
+                .encryptedCardNumber("encrypted2222")
+                .lastFourDigits("2222")
+                .clientId(testUser.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(500))
+                .build());
+
+        CardTransferRequest request = CardTransferRequest.builder()
+                .fromCardId(fromCard.getId())
+                .toCardId(toCard.getId())
+                .amount(BigDecimal.valueOf(300))
+                .description("Тестовый перевод")
+                .build();
+
+        MvcResult first = mockMvc.perform(post(CARD_BASE_URL + ApiConstant.TRANSFER)
+                        .header(ApiConstant.IDEMPOTENCY_KEY_HEADER, "transfer-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+        Number transactionId = JsonPath.read(
+                first.getResponse().getContentAsString(), "$.transactionId");
+
+        mockMvc.perform(post(CARD_BASE_URL + ApiConstant.TRANSFER)
+                        .header(ApiConstant.IDEMPOTENCY_KEY_HEADER, "transfer-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value(transactionId.longValue()))
+                .andExpect(jsonPath("$.fromCardNewBalance").value(1700));
+
+        assertEquals(0, BigDecimal.valueOf(1700).compareTo(
+                cardRepository.findById(fromCard.getId()).orElseThrow().getBalance()));
+
+        request.setAmount(BigDecimal.valueOf(100));
+        mockMvc.perform(post(CARD_BASE_URL + ApiConstant.TRANSFER)
+                        .header(ApiConstant.IDEMPOTENCY_KEY_HEADER, "transfer-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("Асинхронный перевод - ответ 202 с номером заявки, состояние доступно по номеру")
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void whenTransferSubmittedAsyncThenAcceptedAndSubmissionAvailable() throws Exception {
+        Card fromCard = cardRepository.save(Card.builder()
+                .encryptedCardNumber("encrypted1111")
+                .lastFourDigits("1111")
+                .clientId(testUser.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(2000))
+                .build());
+        Card toCard = cardRepository.save(Card.builder()
+                .encryptedCardNumber("encrypted2222")
+                .lastFourDigits("2222")
+                .clientId(testUser.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(500))
+                .build());
+
+        CardTransferRequest request = CardTransferRequest.builder()
+                .fromCardId(fromCard.getId())
+                .toCardId(toCard.getId())
+                .amount(BigDecimal.valueOf(300))
+                .build();
+
+        MvcResult result = mockMvc.perform(post(CARD_BASE_URL + ApiConstant.TRANSFER + ApiConstant.ASYNC)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn();
+        Number submissionId = JsonPath.read(result.getResponse().getContentAsString(), "$.submissionId");
+
+        mockMvc.perform(get(CARD_BASE_URL + ApiConstant.TRANSFER + ApiConstant.ASYNC + "/" + submissionId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.submissionId").value(submissionId.longValue()));
+    }
+
+    @Test
+    @DisplayName("Пакетный перевод BEST_EFFORT - выполняются прошедшие проверку переводы, по остальным причина")
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void whenUserSendsBestEffortBatchThenValidTransfersAreApplied() throws Exception {
+        Card companyCard = cardRepository.save(Card.builder()
+                .encryptedCardNumber("encrypted1111")
+                .lastFourDigits("1111")
+                .clientId(testUser.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(1000))
+                .build());
+
+        Card employeeCard = cardRepository.save(Card.builder()
+                .encryptedCardNumber("encrypted2222")
+                .lastFourDigits("2222")
+                .clientId(testUser.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(0))
+                .build());
+
+        CardBatchTransferRequest request = CardBatchTransferRequest.builder()
+                .mode(BatchTransferMode.BEST_EFFORT)
+                .transfers(List.of(
+                        CardTransferRequest.builder()
+                                .fromCardId(companyCard.getId())
+                                .toCardId(employeeCard.getId())
+                                .amount(BigDecimal.valueOf(600))
+                                .build(),
+                        CardTransferRequest.builder()
+                                .fromCardId(companyCard.getId())
+                                .toCardId(employeeCard.getId())
+                                .amount(BigDecimal.valueOf(600))
+                                .build()
+                ))
+                .build();
+
+        mockMvc.perform(post(CARD_BASE_URL + ApiConstant.TRANSFER + ApiConstant.BATCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completedCount").value(1))
+                .andExpect(jsonPath("$.failedCount").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$.items[0].transfer.fromCardNewBalance").value(400))
+                .andExpect(jsonPath("$.items[1].status").value("FAILED"));
+
+        assertEquals(0, BigDecimal.valueOf(400).compareTo(cardRepository.findById(companyCard.getId()).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.valueOf(600).compareTo(cardRepository.findById(employeeCard.getId()).orElseThrow().getBalance()));
+    }
+
+    @Test
+    @DisplayName("История переводов карты - фильтр по направлению и переход по курсору от новых к старым")
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void whenUserWalksTransferHistoryThenTransfersAreReturnedNewestFirst() throws Exception {
+        Card firstCard = cardRepository.save(Card.builder()
+                .encryptedCardNumber("encrypted1111")
+                .lastFourDigits("1111")
+                .clientId(testUser.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(1000))
+                .build());
+
+        Card secondCard = cardRepository.save(Card.builder()
+                .encryptedCardNumber("encrypted2222")
+                .lastFourDigits("2222")
+                .clientId(testUser.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(1000))
+                .build());
+
+        for (long[] transfer : new long[][]{
+                {firstCard.getId(), secondCard.getId(), 100},
+                {firstCard.getId(), secondCard.getId(), 200},
+                {secondCard.getId(), firstCard.getId(), 50}}) {
+            mockMvc.perform(post(CARD_BASE_URL + ApiConstant.TRANSFER)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(CardTransferRequest.builder()
+                                    .fromCardId(transfer[0])
+                                    .toCardId(transfer[1])
+                                    .amount(BigDecimal.valueOf(transfer[2]))
+                                    .build())))
+                    .andExpect(status().isOk());
+        }
+
+        String historyUrl = CARD_BASE_URL + ApiConstant.TRANSFER + ApiConstant.HISTORY + "/{cardId}";
+
+        mockMvc.perform(get(historyUrl, firstCard.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[0].amount").value(50))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        MvcResult firstPage = mockMvc.perform(get(historyUrl, firstCard.getId())
+                        .param("direction", "OUT")
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().toString())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].amount").value(200))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn();
+
+        String nextCursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get(historyUrl, firstCard.getId())
+                        .param("direction", "OUT")
+                        .param("size", "1")
+                        .param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].amount").value(100))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        mockMvc.perform(get(historyUrl, firstCard.getId())
+                        .param("direction", "IN")
+                        .param("from", LocalDate.now().plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("Выписка по карте за сегодня - баланс на начало и конец периода и обороты")
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void whenUserGetsStatementThenBalancesAndTotalsAreReturned() throws Exception {
+        Card firstCard = cardRepository.save(Card.builder()
+                .encryptedCardNumber("encrypted1111")
+                .lastFourDigits("1111")
+                .clientId(testUser.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(1000))
+                .build());
+
+        Card secondCard = cardRepository.save(Card.builder()
+                .encryptedCardNumber("encrypted2222")
+                .lastFourDigits("2222")
+                .clientId(testUser.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(0))
+                .build());
+
+        for (long[] transfer : new long[][]{
+                {firstCard.getId(), secondCard.getId(), 300},
+                {secondCard.getId(), firstCard.getId(), 100}}) {
+            mockMvc.perform(post(CARD_BASE_URL + ApiConstant.TRANSFER)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(CardTransferRequest.builder()
+                                    .fromCardId(transfer[0])
+                                    .toCardId(transfer[1])
+                                    .amount(BigDecimal.valueOf(transfer[2]))
+                                    .build())))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get(CARD_BASE_URL + ApiConstant.STATEMENT + "/{cardId}", firstCard.getId())
+                        .param("from", LocalDate.now().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.openingBalance").value(1000))
+                .andExpect(jsonPath("$.closingBalance").value(800))
+                .andExpect(jsonPath("$.totalIn").value(100))
+                .andExpect(jsonPath("$.totalOut").value(300))
+                .andExpect(jsonPath("$.transferCount").value(2));
+
+        mockMvc.perform(get(CARD_BASE_URL + ApiConstant.STATEMENT + "/{cardId}", firstCard.getId())
+                        .param("from", LocalDate.now().minusDays(10).toString())
+                        .param("to", LocalDate.now().minusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.openingBalance").value(1000))
+                .andExpect(jsonPath("$.closingBalance").value(1000))
+                .andExpect(jsonPath("$.transferCount").value(0));
+    }
+
+    @Test
+    @DisplayName("Очередь запросов на блокировку и массовое одобрение - меняются только ожидающие карты")
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void whenAdminApprovesBlockRequestsThenOnlyPendingCardsAreBlocked() throws Exception {
+        List<Long> cardIds = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            cardIds.add(cardRepository.save(Card.builder()
+                    .encryptedCardNumber("encrypted" + i)
+                    .lastFourDigits("000" + i)
+                    .clientId(testUser.getId())
+                    .expirationDate(LocalDate.now().plusYears(2))
+                    .status(i < 4 ? CardStatus.REQUEST_FOR_BLOCKING : CardStatus.ACTIVE)
+                    .balance(BigDecimal.valueOf(100))
+                    .build()).getId());
+        }
+
+        mockMvc.perform(get(CARD_BASE_URL + ApiConstant.BLOCK_REQUESTS)
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[0].id").value(cardIds.get(0)))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        BlockRequestDecisionRequest request = BlockRequestDecisionRequest.builder()
+                .decision(BlockRequestDecision.APPROVE)
+                .cardIds(List.of(cardIds.get(0), cardIds.get(1), cardIds.get(3), cardIds.get(0)))
+                .build();
+
+        mockMvc.perform(post(CARD_BASE_URL + ApiConstant.BLOCK_REQUESTS + ApiConstant.DECISION)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requestedCount").value(3))
+                .andExpect(jsonPath("$.updatedCount").value(2));
+
+        assertEquals(CardStatus.BLOCKED, cardRepository.findById(cardIds.get(0)).orElseThrow().getStatus());
+        assertEquals(CardStatus.BLOCKED, cardRepository.findById(cardIds.get(1)).orElseThrow().getStatus());
+        assertEquals(CardStatus.REQUEST_FOR_BLOCKING, cardRepository.findById(cardIds.get(2)).orElseThrow().getStatus());
+        assertEquals(CardStatus.ACTIVE, cardRepository.findById(cardIds.get(3)).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Выгрузка переводов пользователем - доступ запрещён")
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void whenUserExportsTransfersThenReturnForbidden() throws Exception {
+        mockMvc.perform(get(CARD_BASE_URL + ApiConstant.TRANSFER + ApiConstant.EXPORT))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @DisplayName("Перевод с недостаточным балансом - возвращает ошибку")
     @WithMockUser(username = "testuser", roles = {"USER"})
@@ -422,6 +830,30 @@ class CardControllerImplIntegrationTest extends BaseIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/actuator/prometheus").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("card_transfer_seconds_count{application=\"bank-cards\",outcome=\"insufficient_funds\"")));
+    }
+
+    @Test
+    @DisplayName("Метрики Prometheus на основном порту - без токена и обычному пользователю недоступны")
+    void whenScrapePrometheusWithoutAdminRoleThenReturnForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/prometheus").with(user("testuser").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Метрики Prometheus - доступны ADMIN, включают пул соединений и шифрование карт")
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void whenAdminScrapesPrometheusThenReturnMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("card_encryption_seconds_count")));
     }
 
     @Test
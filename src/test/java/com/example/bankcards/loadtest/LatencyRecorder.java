@@ -0,0 +1,68 @@
+package com.example.bankcards.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Задержки одного рабочего потока по одной операции. Без синхронизации: потоки пишут каждый в свой
+ * экземпляр, слияние - после остановки нагрузки.
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+
+    private int size;
+
+    private long rejected;
+
+    private long failed;
+
+    /**
+     * @param status HTTP-статус ответа или -1, если ответа не было (таймаут, разрыв соединения)
+     */
+    void record(long nanos, int status) {
+        if (status / 100 == 4) {
+            rejected++;
+        } else if (status / 100 != 2) {
+            failed++;
+        }
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = nanos;
+    }
+
+    void merge(LatencyRecorder other) {
+        if (size + other.size > latencies.length) {
+            latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, size + other.size));
+        }
+        System.arraycopy(other.latencies, 0, latencies, size, other.size);
+        size += other.size;
+        rejected += other.rejected;
+        failed += other.failed;
+    }
+
+    int count() {
+        return size;
+    }
+
+    long rejected() {
+        return rejected;
+    }
+
+    long failed() {
+        return failed;
+    }
+
+    /**
+     * Квантили в миллисекундах; массив сортируется на месте, поэтому вызывается один раз в конце.
+     */
+    double[] percentilesMillis(double... quantiles) {
+        Arrays.sort(latencies, 0, size);
+        double[] result = new double[quantiles.length];
+        for (int i = 0; i < quantiles.length && size > 0; i++) {
+            int index = (int) Math.ceil(quantiles[i] * size) - 1;
+            result[i] = latencies[Math.min(Math.max(index, 0), size - 1)] / 1_000_000.0;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,418 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.CreditCardServiceApplication;
+import com.example.bankcards.constant.ApiConstant;
+import com.example.bankcards.dto.request.CardTransferRequest;
+import com.example.bankcards.dto.request.CreateCardRequest;
+import com.example.bankcards.dto.request.SignInRequest;
+import com.example.bankcards.dto.request.SignUpRequest;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Нагрузочный прогон по HTTP: регистрирует пользователей через /auth/sign-up, создаёт им карты от имени
+ * администратора и в течение заданного времени выполняет смесь переводов, запросов баланса, списков карт
+ * пользователя и запросов на блокировку. Карта для каждой операции выбирается по закону Ципфа, поэтому
+ * несколько первых карт получают большую часть переводов и конкурируют за блокировку строк.
+ * <p>
+ * Замкнутая модель: каждый из concurrency потоков отправляет следующий запрос сразу после ответа на
+ * предыдущий. Последовательность операций и карт детерминирована при одинаковом seed.
+ * <p>
+ * Запуск против уже поднятого приложения (по умолчанию http://localhost:8080, администратор admin/admin123):
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.bankcards.loadtest.TransferLoadTest \
+ *     -Dexec.args="duration=60 concurrency=64 mix=transfer:70,balance:20,list:8,blocked:2"
+ * </pre>
+ * С параметром embedded=true приложение поднимается в этом же процессе на H2 (профиль test)
+ * на свободном порту, администратор создаётся напрямую в БД.
+ * <p>
+ * Операция async_transfer отправляет тот же перевод в POST /transfer/async: задержка в отчёте - время
+ * приёма заявки, темп исполнения виден по метрике card.transfer.async.batch.
+ */
+public final class TransferLoadTest {
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999, 1.0};
+
+    private static final String PASSWORD = "load-test-password";
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000000.00");
+
+    enum Operation {
+        TRANSFER, ASYNC_TRANSFER, BALANCE, LIST, BLOCKED
+    }
+
+    private record Account(long userId, String authorization, List<Long> cardIds, List<Long> spareCardIds) {
+    }
+
+    private record CardRef(Account owner, long cardId) {
+    }
+
+    private final Map<String, String> options;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final HttpClient httpClient;
+
+    private final String baseUrl;
+
+    private final List<CardRef> cards = new ArrayList<>();
+
+    private final List<Long> spareCards = new ArrayList<>();
+
+    private final Map<Long, Account> spareCardOwners = new HashMap<>();
+
+    private final AtomicInteger nextSpareCard = new AtomicInteger();
+
+    private TransferLoadTest(Map<String, String> options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        if (Boolean.parseBoolean(options.getOrDefault("embedded", "false"))) {
+            context = startEmbedded(options);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            new TransferLoadTest(options, baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        int users = intOption("users", 50);
+        int cardsPerUser = intOption("cards-per-user", 4);
+        int spareCardsPerUser = intOption("spare-cards-per-user", 20);
+        int concurrency = intOption("concurrency", 32);
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        double zipfExponent = Double.parseDouble(options.getOrDefault("zipf", "1.1"));
+        Duration warmup = Duration.ofSeconds(intOption("warmup", 10));
+        Duration duration = Duration.ofSeconds(intOption("duration", 60));
+        Map<Operation, Integer> mix = parseMix(options.getOrDefault("mix", "transfer:70,balance:20,list:8,blocked:2"));
+
+        if (cardsPerUser < 2) {
+            throw new IllegalArgumentException("Для переводов между своими картами нужно минимум 2 карты на пользователя");
+        }
+
+        ExecutorService executor = newWorkerExecutor();
+        try {
+            long setupStart = System.nanoTime();
+            String adminAuthorization = signIn(
+                    options.getOrDefault("admin-username", "admin"),
+                    options.getOrDefault("admin-password", "admin123"));
+            List<Account> accounts = createAccounts(executor, adminAuthorization, users, cardsPerUser, spareCardsPerUser);
+            System.out.printf(Locale.ROOT, "Подготовка: %d пользователей, %d карт за %.1f с%n",
+                    users, users * (cardsPerUser + spareCardsPerUser),
+                    (System.nanoTime() - setupStart) / 1e9);
+
+            for (Account account : accounts) {
+                account.cardIds().forEach(cardId -> cards.add(new CardRef(account, cardId)));
+                account.spareCardIds().forEach(cardId -> {
+                    spareCards.add(cardId);
+                    spareCardOwners.put(cardId, account);
+                });
+            }
+            // Популярность не должна совпадать с порядком регистрации: горячие карты у разных пользователей
+            Collections.shuffle(cards, new Random(seed));
+            Collections.shuffle(spareCards, new Random(seed));
+
+            ZipfSampler zipf = new ZipfSampler(cards.size(), zipfExponent);
+            Operation[] operationTable = operationTable(mix);
+
+            long measureStart = System.nanoTime() + warmup.toNanos();
+            long end = measureStart + duration.toNanos();
+
+            List<Future<Map<Operation, LatencyRecorder>>> workers = new ArrayList<>();
+            for (int worker = 0; worker < concurrency; worker++) {
+                Random random = new Random(seed + worker);
+                workers.add(executor.submit(() -> drive(random, zipf, operationTable, measureStart, end)));
+            }
+
+            Map<Operation, LatencyRecorder> total = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, LatencyRecorder>> worker : workers) {
+                worker.get().forEach((operation, recorder) ->
+                        total.computeIfAbsent(operation, key -> new LatencyRecorder()).merge(recorder));
+            }
+            report(total, duration);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Operation, LatencyRecorder> drive(Random random, ZipfSampler zipf, Operation[] operationTable,
+                                                  long measureStart, long end) {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        while (System.nanoTime() < end) {
+            Operation operation = operationTable[random.nextInt(operationTable.length)];
+            HttpRequest request = buildRequest(operation, cards.get(zipf.next(random)), random);
+
+            long start = System.nanoTime();
+            int status = send(request);
+            long elapsed = System.nanoTime() - start;
+
+            if (start >= measureStart) {
+                recorders.computeIfAbsent(operation, key -> new LatencyRecorder()).record(elapsed, status);
+            }
+        }
+        return recorders;
+    }
+
+    private HttpRequest buildRequest(Operation operation, CardRef card, Random random) {
+        Account owner = card.owner();
+        String cardsUrl = baseUrl + ApiConstant.CARD_BASE_URL;
+        return switch (operation) {
+            case TRANSFER, ASYNC_TRANSFER -> {
+                List<Long> ownCards = owner.cardIds();
+                long toCardId = ownCards.get(random.nextInt(ownCards.size()));
+                while (toCardId == card.cardId()) {
+                    toCardId = ownCards.get(random.nextInt(ownCards.size()));
+                }
+                String url = operation == Operation.TRANSFER
+                        ? cardsUrl + ApiConstant.TRANSFER
+                        : cardsUrl + ApiConstant.TRANSFER + ApiConstant.ASYNC;
+                yield post(url, owner.authorization(), CardTransferRequest.builder()
+                        .fromCardId(card.cardId())
+                        .toCardId(toCardId)
+                        .amount(BigDecimal.ONE)
+                        .description("load-test")
+                        .build());
+            }
+            case BALANCE -> get(cardsUrl + ApiConstant.BALANCE + "/" + card.cardId(), owner.authorization());
+            case LIST -> get(cardsUrl + ApiConstant.GET_ALL + "/user/" + owner.userId() + "?size=20",
+                    owner.authorization());
+            case BLOCKED -> {
+                // Запасные карты идут по кругу: после первого прохода запрос отклоняется (карта уже не активна),
+                // но проходит ту же авторизацию и блокировку строки
+                long spareCardId = spareCards.get(Math.floorMod(nextSpareCard.getAndIncrement(), spareCards.size()));
+                yield post(cardsUrl + ApiConstant.BLOCKED + "/" + spareCardId,
+                        spareCardOwners.get(spareCardId).authorization(), null);
+            }
+        };
+    }
+
+    private List<Account> createAccounts(ExecutorService executor, String adminAuthorization, int users,
+                                         int cardsPerUser, int spareCardsPerUser) throws Exception {
+        long runId = System.currentTimeMillis() % 100_000;
+        List<Callable<Account>> tasks = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            int userIndex = i;
+            tasks.add(() -> {
+                String authorization = signUp("load-" + runId + "-" + userIndex);
+                long userId = userIdFromToken(authorization);
+                List<Long> cardIds = new ArrayList<>();
+                List<Long> spareCardIds = new ArrayList<>();
+                for (int c = 0; c < cardsPerUser + spareCardsPerUser; c++) {
+                    String cardNumber = String.format("4%05d%05d%05d", runId, userIndex, c);
+                    long cardId = createCard(adminAuthorization, cardNumber, userId);
+                    (c < cardsPerUser ? cardIds : spareCardIds).add(cardId);
+                }
+                return new Account(userId, authorization, cardIds, spareCardIds);
+            });
+        }
+
+        List<Account> accounts = new ArrayList<>();
+        for (Future<Account> account : executor.invokeAll(tasks)) {
+            accounts.add(account.get());
+        }
+        return accounts;
+    }
+
+    private String signUp(String username) throws IOException, InterruptedException {
+        JsonNode response = exchange(post(baseUrl + ApiConstant.AUTH_BASE_URL + ApiConstant.SIGN_UP, null,
+                new SignUpRequest(username, PASSWORD)));
+        return "Bearer " + response.get("token").asText();
+    }
+
+    private String signIn(String username, String password) throws IOException, InterruptedException {
+        JsonNode response = exchange(post(baseUrl + ApiConstant.AUTH_BASE_URL + ApiConstant.SIGN_IN, null,
+                new SignInRequest(username, password)));
+        return "Bearer " + response.get("token").asText();
+    }
+
+    private long createCard(String adminAuthorization, String cardNumber, long userId)
+            throws IOException, InterruptedException {
+        JsonNode response = exchange(post(baseUrl + ApiConstant.CARD_BASE_URL + ApiConstant.CREATE,
+                adminAuthorization, CreateCardRequest.builder()
+                        .cardNumber(cardNumber)
+                        .clientId(userId)
+                        .expirationDate(LocalDate.now().plusYears(3))
+                        .balance(INITIAL_BALANCE)
+                        .build()));
+        return response.get("id").asLong();
+    }
+
+    private long userIdFromToken(String authorization) throws IOException {
+        String[] parts = authorization.substring("Bearer ".length()).split("\\.");
+        byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+        return objectMapper.readTree(payload).get("id").asLong();
+    }
+
+    private JsonNode exchange(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " вернул "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private HttpRequest post(String url, String authorization, Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        try {
+            return builder.POST(body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest get(String url, String authorization) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+    }
+
+    private void report(Map<Operation, LatencyRecorder> total, Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        LatencyRecorder all = new LatencyRecorder();
+
+        System.out.printf(Locale.ROOT, "%-10s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "4xx", "5xx/io", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<Operation, LatencyRecorder> entry : total.entrySet()) {
+            all.merge(entry.getValue());
+            printRow(entry.getKey().name().toLowerCase(Locale.ROOT), entry.getValue(), seconds);
+        }
+        printRow("total", all, seconds);
+    }
+
+    private void printRow(String name, LatencyRecorder recorder, double seconds) {
+        double[] percentiles = recorder.percentilesMillis(QUANTILES);
+        System.out.printf(Locale.ROOT, "%-10s %9d %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, recorder.count(), recorder.rejected(), recorder.failed(), recorder.count() / seconds,
+                percentiles[0], percentiles[1], percentiles[2], percentiles[3]);
+    }
+
+    /**
+     * Каждый клиент - виртуальный поток, поэтому concurrency в тысячи не упирается в потоки генератора.
+     */
+    private ExecutorService newWorkerExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    private static Operation[] operationTable(Map<Operation, Integer> mix) {
+        List<Operation> table = new ArrayList<>();
+        mix.forEach((operation, weight) -> table.addAll(Collections.nCopies(weight, operation)));
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("Смесь операций пуста");
+        }
+        return table.toArray(Operation[]::new);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.split(":");
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Ожидается параметр вида ключ=значение: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private static ConfigurableApplicationContext startEmbedded(Map<String, String> options) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CreditCardServiceApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.bankcards=WARN",
+                        // Отклонённые запросы на блокировку ожидаемы и не должны засорять вывод
+                        "--logging.level.com.example.bankcards.exception=OFF",
+                        "--logging.level.org.springframework.security=WARN"
+                );
+
+        context.getBean(UserRepository.class).save(User.builder()
+                .username(options.getOrDefault("admin-username", "admin"))
+                .password(context.getBean(PasswordEncoder.class).encode(options.getOrDefault("admin-password", "admin123")))
+                .role(Role.ROLE_ADMIN)
+                .build());
+        return context;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.bankcards.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Выбор индекса 0..n-1 с вероятностью, пропорциональной 1/(rank^exponent): индекс 0 - самый популярный.
+ * Накопленное распределение считается один раз, выборка - бинарный поиск.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Размер распределения должен быть положительным");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
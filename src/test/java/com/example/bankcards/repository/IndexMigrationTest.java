@@ -0,0 +1,109 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import liquibase.change.AbstractSQLChange;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Индексы в PostgreSQL создаёт миграция Liquibase, а схема H2 в тестах строится по @Table(indexes).
+ * Тест разбирает мастер-changelog тем же парсером, что и приложение, и сверяет миграцию с сущностями,
+ * поэтому {@link IndexUsageIntegrationTest} проверяет планы запросов на тех же индексах, что и в рабочей БД.
+ */
+class IndexMigrationTest {
+
+    private static final String MASTER_CHANGELOG = "db/migration/db.changelog-master.yml";
+
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE (UNIQUE )?INDEX CONCURRENTLY IF NOT EXISTS (\\w+) ON (\\w+) \\(([^)]+)\\)", Pattern.CASE_INSENSITIVE);
+
+    private static List<ChangeSet> changeSets;
+
+    @BeforeAll
+    static void parseChangeLog() throws Exception {
+        ResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor();
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance()
+                .getParser(MASTER_CHANGELOG, resourceAccessor)
+                .parse(MASTER_CHANGELOG, new ChangeLogParameters(), resourceAccessor);
+        changeSets = changeLog.getChangeSets();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Индекс создаётся миграцией вне транзакции, с откатом и теми же колонками, что в сущности")
+    @CsvSource(delimiter = '|', value = {
+            "idx_cards_user_id_id | cards | user_id, id",
+            "idx_cards_last_four_digits_id | cards | last_four_digits, id",
+            "idx_transfers_from_card_id_created_at | transfers | from_card_id, created_at",
+            "idx_transfers_to_card_id_created_at | transfers | to_card_id, created_at"
+    })
+    void whenChangeLogIsParsedThenIndexMigrationMatchesEntity(String index, String table, String columns) {
+        assertConcurrentIndexMigration(index, table, columns, false);
+
+        Index entityIndex = Arrays.stream(entityIndexes(table))
+                .filter(candidate -> candidate.name().equals(index))
+                .findFirst()
+                .orElse(null);
+        assertNotNull(entityIndex, () -> "Индекс " + index + " не объявлен в @Table сущности");
+        assertEquals(columns, normalize(entityIndex.columnList()));
+    }
+
+    @Test
+    @DisplayName("Уникальный индекс отпечатка карты создаётся миграцией вне транзакции, с откатом")
+    void whenChangeLogIsParsedThenFingerprintIndexIsBuiltConcurrently() {
+        // Уникальность в H2 задаёт @Column(unique = true), поэтому в @Table(indexes) этого индекса нет
+        assertConcurrentIndexMigration("idx_cards_card_fingerprint", "cards", "card_fingerprint", true);
+    }
+
+    private static void assertConcurrentIndexMigration(String index, String table, String columns, boolean unique) {
+        ChangeSet changeSet = null;
+        Matcher matcher = null;
+        for (ChangeSet candidate : changeSets) {
+            for (var change : candidate.getChanges()) {
+                if (change instanceof AbstractSQLChange sqlChange) {
+                    Matcher candidateMatcher = CREATE_INDEX.matcher(sqlChange.getSql());
+                    if (candidateMatcher.find() && candidateMatcher.group(2).equals(index)) {
+                        changeSet = candidate;
+                        matcher = candidateMatcher;
+                    }
+                }
+            }
+        }
+
+        assertNotNull(changeSet, () -> "Миграция с индексом " + index + " не подключена в " + MASTER_CHANGELOG);
+        assertEquals(unique, matcher.group(1) != null);
+        assertEquals(table, matcher.group(3));
+        assertEquals(columns, normalize(matcher.group(4)));
+        assertFalse(changeSet.isRunInTransaction(), "CREATE INDEX CONCURRENTLY нельзя выполнять в транзакции");
+        assertFalse(changeSet.getRollback().getChanges().isEmpty(), "У " + changeSet.getId() + " нет отката");
+    }
+
+    private static Index[] entityIndexes(String table) {
+        Class<?> entity = table.equals("cards") ? Card.class : Transfer.class;
+        return entity.getAnnotation(Table.class).indexes();
+    }
+
+    private static String normalize(String columns) {
+        return String.join(", ", Arrays.stream(columns.split(",")).map(String::trim).toList());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.BaseIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Планы запросов на H2: индексы здесь создаются по @Table(indexes) сущностей, а не миграцией.
+ * Совпадение миграции с сущностями проверяет {@link IndexMigrationTest}.
+ */
+class IndexUsageIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest(name = "{1}")
+    @DisplayName("Выборки карт и переводов по владельцу, последним цифрам и картам используют индексы")
+    @CsvSource(delimiter = '|', value = {
+            "SELECT * FROM cards WHERE user_id = 1 ORDER BY id LIMIT 20 | idx_cards_user_id_id",
+            "SELECT * FROM cards WHERE last_four_digits = '1234' ORDER BY id LIMIT 20 | idx_cards_last_four_digits_id",
+            "SELECT * FROM transfers WHERE from_card_id = 1 ORDER BY created_at DESC LIMIT 20 | idx_transfers_from_card_id_created_at",
+            "SELECT * FROM transfers WHERE to_card_id = 1 ORDER BY created_at DESC LIMIT 20 | idx_transfers_to_card_id_created_at"
+    })
+    void whenQueryFiltersByIndexedColumnsThenPlanUsesIndex(String query, String index) {
+        // PostgreSQL отдаёт план строкой на каждый узел, H2 - одной строкой
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+
+        assertTrue(plan.toLowerCase().contains(index), () -> "План не использует " + index + ":\n" + plan);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.security.impl.PrincipalCacheImpl;
+import com.example.bankcards.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtService, userService, new PrincipalCacheImpl(100, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Токен с id и role в claims - пользователь не загружается из БД")
+    void whenTokenHasIdAndRoleClaimsThenPrincipalIsBuiltWithoutDatabase() throws Exception {
+        when(jwtService.parseToken("token")).thenReturn(new JwtClaims("testUser", 7L, Role.ROLE_ADMIN, null));
+
+        filter.doFilter(requestWithToken("token"), new MockHttpServletResponse(), filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User principal = assertInstanceOf(User.class, authentication.getPrincipal());
+        assertEquals(7L, principal.getId());
+        assertEquals("testUser", principal.getUsername());
+        assertEquals(Role.ROLE_ADMIN, principal.getRole());
+        assertEquals("ROLE_ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userService);
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Токен без id и role - пользователь загружается из БД один раз и кешируется")
+    void whenTokenHasNoIdClaimThenPrincipalIsLoadedOnceAndCached() throws Exception {
+        User user = User.builder().id(3L).username("legacyUser").role(Role.ROLE_USER).build();
+        when(jwtService.parseToken("legacy")).thenReturn(new JwtClaims("legacyUser", null, null, null));
+        when(userService.userDetailsService()).thenReturn(userDetailsService);
+        when(userDetailsService.loadUserByUsername("legacyUser")).thenReturn(user);
+
+        filter.doFilter(requestWithToken("legacy"), new MockHttpServletResponse(), filterChain);
+        SecurityContextHolder.clearContext();
+        filter.doFilter(requestWithToken("legacy"), new MockHttpServletResponse(), filterChain);
+
+        assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(userDetailsService, times(1)).loadUserByUsername("legacyUser");
+    }
+
+    @Test
+    @DisplayName("Запрос без заголовка Authorization - аутентификация не устанавливается")
+    void whenNoAuthorizationHeaderThenContextStaysEmpty() throws Exception {
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtService, never()).parseToken(any());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    private MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(JwtAuthenticationFilter.HEADER_NAME, JwtAuthenticationFilter.BEARER_PREFIX + token);
+        return request;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.security.impl.JwtServiceImpl;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceImplTest {
+
+    private static final String SIGNING_KEY = "53A73E5F1C4E0A2D3B5F2D784E6A1B423D6F247D1F6E5C3A596D635A75327855";
+
+    private JwtServiceImpl jwtService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtServiceImpl(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "jwtSigningKey", SIGNING_KEY);
+        jwtService.init();
+
+        user = User.builder()
+                .id(42L)
+                .username("testUser")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Разбор выпущенного токена - возвращаются subject, id, role и срок действия")
+    void whenParseGeneratedTokenThenAllClaimsAreReturned() {
+        String token = jwtService.generateToken(user);
+
+        JwtClaims claims = jwtService.parseToken(token);
+
+        assertEquals("testUser", claims.subject());
+        assertEquals(42L, claims.id());
+        assertEquals(Role.ROLE_USER, claims.role());
+        assertTrue(claims.expiration().after(new Date()));
+        assertTrue(claims.hasPrincipalClaims());
+    }
+
+    @Test
+    @DisplayName("Проверка токена для другого пользователя - токен невалиден")
+    void whenTokenBelongsToAnotherUserThenTokenIsInvalid() {
+        String token = jwtService.generateToken(user);
+        User anotherUser = User.builder().id(1L).username("another").role(Role.ROLE_USER).build();
+
+        assertTrue(jwtService.isTokenValid(token, user));
+        assertFalse(jwtService.isTokenValid(token, anotherUser));
+    }
+
+    @Test
+    @DisplayName("Токен, подписанный другим ключом - выбрасывается исключение")
+    void whenTokenSignedWithAnotherKeyThenThrowException() {
+        JwtServiceImpl otherService = new JwtServiceImpl(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(otherService, "jwtSigningKey",
+                "6B5A3D2C1F0E9D8C7B6A5F4E3D2C1B0A9F8E7D6C5B4A3F2E1D0C9B8A7F6E5D4C");
+        otherService.init();
+        String foreignToken = otherService.generateToken(user);
+
+        assertThrows(SignatureException.class, () -> jwtService.parseToken(foreignToken));
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.request.CardTransferRequest;
+import com.example.bankcards.dto.response.AsyncTransferResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.TransferSubmission;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.TransferSubmissionRepository;
+import com.example.bankcards.security.User;
+import com.example.bankcards.service.impl.AsyncTransferServiceImpl;
+import com.example.bankcards.service.impl.CardAccessServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.example.bankcards.entity.enums.CardStatus.ACTIVE;
+import static com.example.bankcards.entity.enums.Role.ROLE_USER;
+import static com.example.bankcards.entity.enums.TransferSubmissionStatus.COMPLETED;
+import static com.example.bankcards.entity.enums.TransferSubmissionStatus.FAILED;
+import static com.example.bankcards.entity.enums.TransferSubmissionStatus.PENDING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncTransferServiceImplTest {
+
+    @Mock
+    private TransferSubmissionRepository transferSubmissionRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private TransferMapper transferMapper;
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private CardAccessService cardAccessService = new CardAccessServiceImpl();
+
+    @Mock
+    private CardBalanceService cardBalanceService;
+
+    @Mock
+    private TransferOutboxService transferOutboxService;
+
+    @Mock
+    private CardSnapshotCache cardSnapshotCache;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AsyncTransferServiceImpl asyncTransferService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(asyncTransferService, "partitions", 2);
+        ReflectionTestUtils.setField(asyncTransferService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(asyncTransferService, "batchSize", 10);
+        ReflectionTestUtils.setField(asyncTransferService, "running", true);
+        ReflectionTestUtils.invokeMethod(asyncTransferService, "createQueues");
+
+        testUser = User.builder()
+                .id(1L)
+                .username("testUser")
+                .password("password")
+                .role(ROLE_USER)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Приём асинхронного перевода - заявка сохраняется со статусом PENDING")
+    void whenSubmitTransferThenPendingSubmissionSaved() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(cardRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(card(1L, 1L, "1000.00"), card(2L, 1L, "0.00")));
+        when(transferSubmissionRepository.save(any(TransferSubmission.class))).thenAnswer(invocation -> {
+            TransferSubmission submission = invocation.getArgument(0);
+            submission.setId(100L);
+            return submission;
+        });
+
+        AsyncTransferResponse result = asyncTransferService.submit(request(1L, 2L, "300.00"));
+
+        assertEquals(100L, result.getSubmissionId());
+        assertEquals(PENDING, result.getStatus());
+        verify(transferSubmissionRepository).save(argThat(submission ->
+                submission.getUserId().equals(1L) && submission.getStatus() == PENDING));
+        verify(cardRepository, never()).findAllByIdInWithLock(any());
+    }
+
+    @Test
+    @DisplayName("Приём перевода на карту другого пользователя - отказ без сохранения заявки")
+    void whenSubmitTransferToForeignCardThenAccessDenied() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(cardRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(card(1L, 1L, "1000.00"), card(2L, 5L, "0.00")));
+
+        assertThrows(AccessDeniedException.class, () -> asyncTransferService.submit(request(1L, 2L, "300.00")));
+
+        verify(transferSubmissionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Пачка заявок по одной карте - применяются по порядку, не прошедшая проверку получает отказ")
+    void whenApplyBatchThenSubmissionsAppliedInOrderAgainstRunningBalance() {
+        Card fromCard = card(1L, 1L, "1000.00");
+        Card toCard = card(2L, 1L, "0.00");
+        TransferSubmission first = submission(10L, "600.00");
+        TransferSubmission second = submission(11L, "600.00");
+        TransferSubmission third = submission(12L, "400.00");
+
+        when(transferSubmissionRepository.findAllByIdInAndStatusWithLock(List.of(10L, 11L, 12L), PENDING))
+                .thenReturn(List.of(first, second, third));
+        when(cardRepository.findAllByIdInWithLock(List.of(1L, 2L))).thenReturn(List.of(fromCard, toCard));
+        when(transferRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transfer> transfers = invocation.getArgument(0);
+            return transfers.stream()
+                    .map(transfer -> Transfer.builder()
+                            .id(transfer.getAmount().longValue())
+                            .fromCardId(transfer.getFromCardId())
+                            .toCardId(transfer.getToCardId())
+                            .amount(transfer.getAmount())
+                            .build())
+                    .toList();
+        });
+
+        int completed = asyncTransferService.applyBatch(List.of(10L, 11L, 12L));
+
+        assertEquals(2, completed);
+        assertEquals(COMPLETED, first.getStatus());
+        assertEquals(600L, first.getTransferId());
+        assertEquals(FAILED, second.getStatus());
+        assertTrue(second.getError().contains("недостаточно средств"));
+        assertEquals(COMPLETED, third.getStatus());
+        assertEquals(400L, third.getTransferId());
+        assertEquals(0, BigDecimal.ZERO.compareTo(fromCard.getBalance()));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(toCard.getBalance()));
+        verify(transferRepository).saveAll(argThat(transfers -> ((List<?>) transfers).size() == 2));
+        verify(cardSnapshotCache).evictAfterCommit(argThat(ids -> ids.containsAll(List.of(1L, 2L))));
+    }
+
+    @Test
+    @DisplayName("Заявки пачки уже исполнены - карты не блокируются")
+    void whenNoPendingSubmissionsThenCardsNotLocked() {
+        when(transferSubmissionRepository.findAllByIdInAndStatusWithLock(eq(List.of(10L)), eq(PENDING)))
+                .thenReturn(List.of());
+
+        assertEquals(0, asyncTransferService.applyBatch(List.of(10L)));
+
+        verify(cardRepository, never()).findAllByIdInWithLock(any());
+        verify(transferRepository, never()).saveAll(any());
+    }
+
+    private Card card(Long id, Long clientId, String balance) {
+        return Card.builder()
+                .id(id)
+                .encryptedCardNumber("encrypted" + id)
+                .lastFourDigits("000" + id)
+                .clientId(clientId)
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(ACTIVE)
+                .balance(new BigDecimal(balance))
+                .build();
+    }
+
+    private TransferSubmission submission(Long id, String amount) {
+        return TransferSubmission.builder()
+                .id(id)
+                .userId(1L)
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(new BigDecimal(amount))
+                .status(PENDING)
+                .build();
+    }
+
+    private CardTransferRequest request(Long fromCardId, Long toCardId, String amount) {
+        return CardTransferRequest.builder()
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
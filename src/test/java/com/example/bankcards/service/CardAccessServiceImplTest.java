@@ -0,0 +1,54 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.exception.InactiveCardException;
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.security.User;
+import com.example.bankcards.service.impl.CardAccessServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.math.BigDecimal;
+
+import static com.example.bankcards.entity.enums.CardStatus.ACTIVE;
+import static com.example.bankcards.entity.enums.CardStatus.BLOCKED;
+import static com.example.bankcards.entity.enums.Role.ROLE_ADMIN;
+import static com.example.bankcards.entity.enums.Role.ROLE_USER;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CardAccessServiceImplTest {
+
+    private final CardAccessService cardAccessService = new CardAccessServiceImpl();
+
+    private final User user = User.builder().id(1L).username("user").password("password").role(ROLE_USER).build();
+
+    private final User admin = User.builder().id(2L).username("admin").password("password").role(ROLE_ADMIN).build();
+
+    @Test
+    @DisplayName("Доступ - владелец и администратор допускаются, другой пользователь нет")
+    void whenCheckAccessThenOnlyOwnerAndAdminAllowed() {
+        assertDoesNotThrow(() -> cardAccessService.checkAccess(user, 1L));
+        assertDoesNotThrow(() -> cardAccessService.checkAccess(admin, 1L));
+        assertThrows(AccessDeniedException.class, () -> cardAccessService.checkAccess(user, 3L));
+    }
+
+    @Test
+    @DisplayName("Перевод - неактивная карта и нехватка средств отклоняются, баланс берётся переданный")
+    void whenCheckTransferThenStatusAndFundsAreValidated() {
+        Card from = card(10L, ACTIVE, "100.00");
+        Card to = card(20L, ACTIVE, "0.00");
+
+        assertDoesNotThrow(() -> cardAccessService.checkTransfer(from, to, new BigDecimal("100.00"), from.getBalance()));
+        assertThrows(InsufficientFundsException.class,
+                () -> cardAccessService.checkTransfer(from, to, new BigDecimal("100.00"), new BigDecimal("99.99")));
+        assertThrows(InactiveCardException.class,
+                () -> cardAccessService.checkTransfer(from, card(30L, BLOCKED, "0.00"), BigDecimal.ONE, from.getBalance()));
+    }
+
+    private static Card card(Long id, CardStatus status, String balance) {
+        return Card.builder().id(id).clientId(1L).status(status).balance(new BigDecimal(balance)).build();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.exception.CardEncryptionException;
 import com.example.bankcards.service.impl.CardEncryptionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,6 +10,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -24,11 +31,12 @@ public class CardEncryptionServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        cardEncryptionService = new CardEncryptionServiceImpl();
+        cardEncryptionService = new CardEncryptionServiceImpl(new SimpleMeterRegistry());
 
         ReflectionTestUtils.setField(cardEncryptionService, "algorithm", "AES");
         ReflectionTestUtils.setField(cardEncryptionService, "transformation", "AES/ECB/PKCS5Padding");
         ReflectionTestUtils.setField(cardEncryptionService, "encryptionKey", "1234567890123456");
+        ReflectionTestUtils.setField(cardEncryptionService, "fingerprintKey", "test-fingerprint-key");
 
         cardEncryptionService.init();
     }
@@ -59,6 +67,73 @@ public class CardEncryptionServiceImplTest {
         assertTrue(exception.getMessage().contains("шифрованием"));
     }
 
+    @Test
+    @DisplayName("Шифрование и расшифровка из нескольких потоков - результаты не смешиваются")
+    void whenEncryptAndDecryptConcurrentlyThenEachThreadGetsOwnResult() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String cardNumber = String.format("4111%012d", i);
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        String encrypted = cardEncryptionService.encrypt(cardNumber);
+                        if (!cardNumber.equals(cardEncryptionService.decrypt(encrypted))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Шифрование на новом виртуальном потоке на каждый вызов - шифры из пула не смешиваются")
+    void whenEncryptOnVirtualThreadPerCallThenResultsAreCorrect() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                String cardNumber = String.format("4111%012d", i);
+                results.add(executor.submit(() ->
+                        cardNumber.equals(cardEncryptionService.decrypt(cardEncryptionService.encrypt(cardNumber)))));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Расшифровка после ошибки - шифр восстанавливается")
+    void whenDecryptFailsThenNextDecryptSucceeds() {
+        String encrypted = cardEncryptionService.encrypt("4111111111111111");
+
+        assertThrows(CardEncryptionException.class, () -> cardEncryptionService.decrypt("bm90LWEtYmxvY2s="));
+
+        assertEquals("4111111111111111", cardEncryptionService.decrypt(encrypted));
+    }
+
+    @Test
+    @DisplayName("Отпечаток номера карты - детерминирован и не совпадает для разных номеров")
+    void whenFingerprintCardNumberThenResultIsDeterministicHex() {
+        String first = cardEncryptionService.fingerprint("4111111111111111");
+        String second = cardEncryptionService.fingerprint("4111111111111111");
+        String other = cardEncryptionService.fingerprint("4111111111111112");
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(64, first.length());
+        assertTrue(first.matches("[0-9a-f]{64}"));
+    }
+
     @Test
     @DisplayName("Инициализация сервиса с ключом неверной длины - выбрасывается исключение")
     void whenInitWithInvalidKeyLengthThenThrowIllegalStateException() {
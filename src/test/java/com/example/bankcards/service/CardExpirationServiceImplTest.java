@@ -0,0 +1,77 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.CardExpirationResponse;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.impl.CardExpirationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CardExpirationServiceImplTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CardSnapshotCache cardSnapshotCache;
+
+    private CardExpirationServiceImpl cardExpirationService;
+
+    @BeforeEach
+    void setUp() {
+        cardExpirationService = new CardExpirationServiceImpl(cardRepository, new TransactionTemplate(transactionManager),
+                cardSnapshotCache);
+        ReflectionTestUtils.setField(cardExpirationService, "chunkSize", 2);
+    }
+
+    @Test
+    @DisplayName("Истечение срока карт - пачки выполняются, пока пачка заполнена целиком")
+    void whenExpireCardsThenChunksRunUntilPartialChunk() {
+        LocalDate today = LocalDate.now();
+        when(cardRepository.expireActiveCards(today, 2)).thenReturn(2, 2, 1);
+        when(cardRepository.countByStatusAndExpirationDateBefore(CardStatus.ACTIVE, today)).thenReturn(1L);
+
+        CardExpirationResponse response = cardExpirationService.expireCards();
+
+        assertEquals(5, response.getExpiredCount());
+        assertEquals(3, response.getChunkCount());
+        assertEquals(1, response.getRemainingCount());
+        verify(cardRepository, times(3)).expireActiveCards(any(LocalDate.class), eq(2));
+        verify(transactionManager, times(3)).commit(any());
+        verify(cardSnapshotCache).evictAll();
+    }
+
+    @Test
+    @DisplayName("Истечение срока карт - нет просроченных карт, одна пустая пачка")
+    void whenNothingToExpireThenSingleEmptyChunk() {
+        when(cardRepository.expireActiveCards(any(LocalDate.class), eq(2))).thenReturn(0);
+
+        CardExpirationResponse response = cardExpirationService.expireCards();
+
+        assertEquals(0, response.getExpiredCount());
+        assertEquals(0, response.getChunkCount());
+        verify(cardRepository, times(1)).expireActiveCards(any(LocalDate.class), eq(2));
+        verify(cardSnapshotCache, never()).evictAll();
+    }
+}
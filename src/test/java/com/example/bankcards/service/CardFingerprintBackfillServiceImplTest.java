@@ -0,0 +1,95 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.exception.CardEncryptionException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.impl.CardFingerprintBackfillServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CardFingerprintBackfillServiceImplTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardEncryptionService cardEncryptionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CardFingerprintBackfillServiceImpl backfillService;
+
+    @BeforeEach
+    void setUp() {
+        backfillService = new CardFingerprintBackfillServiceImpl(
+                cardRepository, cardEncryptionService, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(backfillService, "batchSize", 2);
+    }
+
+    @Test
+    @DisplayName("Заполнение отпечатков по пачкам - каждая карта получает отпечаток")
+    void whenBackfillThenFingerprintIsSetForEveryCard() {
+        Card first = Card.builder().id(1L).encryptedCardNumber("enc1").build();
+        Card second = Card.builder().id(2L).encryptedCardNumber("enc2").build();
+        Card third = Card.builder().id(5L).encryptedCardNumber("enc5").build();
+
+        when(cardRepository.findAllByCardFingerprintIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(cardRepository.findAllByCardFingerprintIsNullAndIdGreaterThanOrderByIdAsc(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(third));
+        when(cardRepository.findAllByCardFingerprintIsNullAndIdGreaterThanOrderByIdAsc(eq(5L), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(cardEncryptionService.decrypt("enc1")).thenReturn("1111");
+        when(cardEncryptionService.decrypt("enc2")).thenReturn("2222");
+        when(cardEncryptionService.decrypt("enc5")).thenReturn("5555");
+        when(cardEncryptionService.fingerprint("1111")).thenReturn("fp1");
+        when(cardEncryptionService.fingerprint("2222")).thenReturn("fp2");
+        when(cardEncryptionService.fingerprint("5555")).thenReturn("fp5");
+
+        int updated = backfillService.backfill();
+
+        assertEquals(3, updated);
+        assertEquals("fp1", first.getCardFingerprint());
+        assertEquals("fp2", second.getCardFingerprint());
+        assertEquals("fp5", third.getCardFingerprint());
+    }
+
+    @Test
+    @DisplayName("Карта с нерасшифровываемым номером - пропускается без остановки заполнения")
+    void whenCardCannotBeDecryptedThenItIsSkipped() {
+        Card broken = Card.builder().id(1L).encryptedCardNumber("broken").build();
+        Card valid = Card.builder().id(2L).encryptedCardNumber("enc2").build();
+
+        when(cardRepository.findAllByCardFingerprintIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(broken, valid));
+        when(cardRepository.findAllByCardFingerprintIsNullAndIdGreaterThanOrderByIdAsc(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(cardEncryptionService.decrypt("broken")).thenThrow(new CardEncryptionException("ошибка"));
+        when(cardEncryptionService.decrypt("enc2")).thenReturn("2222");
+        when(cardEncryptionService.fingerprint("2222")).thenReturn("fp2");
+
+        int updated = backfillService.backfill();
+
+        assertEquals(1, updated);
+        assertNull(broken.getCardFingerprint());
+        assertEquals("fp2", valid.getCardFingerprint());
+    }
+}
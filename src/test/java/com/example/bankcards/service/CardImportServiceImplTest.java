@@ -0,0 +1,107 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.enums.CardImportFormat;
+import com.example.bankcards.dto.response.CardImportResponse;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.impl.CardImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validation;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CardImportServiceImplTest {
+
+    private static final String CSV = String.join("\n",
+            "card_number,client_id,expiration_date,balance",
+            "4111111111111111,1,2030-01-01,100.00",
+            "4222222222222222,1,2030-01-01,0");
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CardEncryptionService cardEncryptionService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CardImportServiceImpl cardImportService;
+
+    @BeforeEach
+    void setUp() {
+        cardImportService = new CardImportServiceImpl(cardRepository, userRepository, cardEncryptionService,
+                new ObjectMapper().findAndRegisterModules(), Validation.buildDefaultValidatorFactory().getValidator(),
+                entityManager, new TransactionTemplate(transactionManager));
+
+        when(cardEncryptionService.fingerprint("4111111111111111")).thenReturn("fp1");
+        when(cardEncryptionService.fingerprint("4222222222222222")).thenReturn("fp2");
+        when(cardEncryptionService.encrypt(any())).thenAnswer(invocation -> "enc" + invocation.getArgument(0));
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Карту создали параллельно между проверкой и вставкой - пачка записывается повторно без неё")
+    void whenUniqueViolationOnFlushThenChunkIsRetriedAndDuplicateReported() {
+        when(cardRepository.findExistingFingerprints(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of("fp1"));
+        doThrow(new PersistenceException(new ConstraintViolationException(
+                "duplicate key", new SQLException("duplicate key", "23505"), "uk_cards_card_fingerprint")))
+                .doNothing()
+                .when(entityManager).flush();
+
+        CardImportResponse response = cardImportService.importCards(CardImportFormat.CSV, csv());
+
+        assertEquals(2, response.getTotalRows());
+        assertEquals(1, response.getImportedCount());
+        assertEquals(1, response.getFailedCount());
+        assertEquals(2, response.getErrors().get(0).getLine());
+        verify(entityManager, times(2)).flush();
+    }
+
+    @Test
+    @DisplayName("Ошибка записи, не связанная с ограничениями, - пачка не повторяется, импорт прерывается")
+    void whenFlushFailsWithoutConstraintViolationThenExceptionIsPropagated() {
+        when(cardRepository.findExistingFingerprints(anyCollection())).thenReturn(List.of());
+        doThrow(new PersistenceException("connection lost")).when(entityManager).flush();
+
+        assertThrows(PersistenceException.class, () -> cardImportService.importCards(CardImportFormat.CSV, csv()));
+        verify(entityManager, times(1)).flush();
+    }
+
+    private static InputStream csv() {
+        return new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+    }
+}
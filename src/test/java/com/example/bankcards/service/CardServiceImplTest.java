@@ -1,8 +1,10 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.request.CardBatchTransferRequest;
 import com.example.bankcards.dto.request.CardTransferRequest;
 import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.request.UpdateCardRequest;
+import com.example.bankcards.dto.response.CardBatchTransferResponse;
 import com.example.bankcards.dto.response.CardResponse;
 import com.example.bankcards.dto.response.CardTransferResponse;
 import com.example.bankcards.entity.Card;
@@ -14,24 +16,41 @@ import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransferRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.User;
+import com.example.bankcards.service.impl.CardAccessServiceImpl;
 import com.example.bankcards.service.impl.CardServiceImpl;
+import com.example.bankcards.service.TransferIdempotencyService;
+import com.example.bankcards.service.CardSnapshotCache.CardSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import static com.example.bankcards.dto.enums.BatchTransferItemStatus.COMPLETED;
+import static com.example.bankcards.dto.enums.BatchTransferItemStatus.FAILED;
+import static com.example.bankcards.dto.enums.BatchTransferItemStatus.ROLLED_BACK;
+import static com.example.bankcards.dto.enums.BatchTransferMode.ALL_OR_NOTHING;
+import static com.example.bankcards.dto.enums.BatchTransferMode.BEST_EFFORT;
 import static com.example.bankcards.entity.enums.CardStatus.ACTIVE;
 import static com.example.bankcards.entity.enums.CardStatus.EXPIRED;
 import static com.example.bankcards.entity.enums.CardStatus.REQUEST_FOR_BLOCKING;
@@ -43,7 +62,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -72,6 +95,27 @@ class CardServiceImplTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private CardAccessService cardAccessService = new CardAccessServiceImpl();
+
+    @Mock
+    private CardBalanceService cardBalanceService;
+
+    @Mock
+    private TransferOutboxService transferOutboxService;
+
+    @Mock
+    private TransferIdempotencyService transferIdempotencyService;
+
+    @Mock
+    private CardSnapshotCache cardSnapshotCache;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private CardServiceImpl cardService;
 
@@ -123,9 +167,10 @@ class CardServiceImplTest {
                 .balance(new BigDecimal("500.00"))
                 .build();
 
-        when(cardEncryptionService.encrypt("1234567890123456")).thenReturn("encrypted1234567890123456");
-        when(cardRepository.existsByEncryptedCardNumber("encrypted1234567890123456")).thenReturn(false);
+        when(cardEncryptionService.fingerprint("1234567890123456")).thenReturn("fingerprint1234567890123456");
+        when(cardRepository.existsByCardFingerprint("fingerprint1234567890123456")).thenReturn(false);
         when(userRepository.existsById(1L)).thenReturn(true);
+        when(cardEncryptionService.encrypt("1234567890123456")).thenReturn("encrypted1234567890123456");
         when(cardRepository.save(any(Card.class))).thenReturn(testCard);
         when(cardMapper.mapToResponseDTO(testCard)).thenReturn(expectedResponse);
 
@@ -133,9 +178,12 @@ class CardServiceImplTest {
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(cardRepository).existsByEncryptedCardNumber("encrypted1234567890123456");
+        verify(cardRepository).existsByCardFingerprint("fingerprint1234567890123456");
         verify(userRepository).existsById(1L);
-        verify(cardRepository).save(any(Card.class));
+        verify(cardRepository).save(argThat(card ->
+                "fingerprint1234567890123456".equals(card.getCardFingerprint())
+                        && "encrypted1234567890123456".equals(card.getEncryptedCardNumber())
+        ));
     }
 
     @Test
@@ -148,8 +196,8 @@ class CardServiceImplTest {
                 .balance(new BigDecimal("500.00"))
                 .build();
 
-        when(cardEncryptionService.encrypt("1234567890123456")).thenReturn("encrypted1234567890123456");
-        when(cardRepository.existsByEncryptedCardNumber("encrypted1234567890123456")).thenReturn(true);
+        when(cardEncryptionService.fingerprint("1234567890123456")).thenReturn("fingerprint1234567890123456");
+        when(cardRepository.existsByCardFingerprint("fingerprint1234567890123456")).thenReturn(true);
 
         EntityAlreadyExistsException exception = assertThrows(
                 EntityAlreadyExistsException.class,
@@ -157,8 +205,9 @@ class CardServiceImplTest {
         );
 
         assertTrue(exception.getMessage().contains("уже существует"));
-        verify(cardRepository).existsByEncryptedCardNumber("encrypted1234567890123456");
+        verify(cardRepository).existsByCardFingerprint("fingerprint1234567890123456");
         verify(userRepository, never()).existsById(any());
+        verify(cardEncryptionService, never()).encrypt(any());
     }
 
     @Test
@@ -171,8 +220,8 @@ class CardServiceImplTest {
                 .balance(new BigDecimal("500.00"))
                 .build();
 
-        when(cardEncryptionService.encrypt("1234567890123456")).thenReturn("encrypted1234567890123456");
-        when(cardRepository.existsByEncryptedCardNumber("encrypted1234567890123456")).thenReturn(false);
+        when(cardEncryptionService.fingerprint("1234567890123456")).thenReturn("fingerprint1234567890123456");
+        when(cardRepository.existsByCardFingerprint("fingerprint1234567890123456")).thenReturn(false);
         when(userRepository.existsById(999L)).thenReturn(false);
 
         EntityNotFoundException exception = assertThrows(
@@ -186,43 +235,37 @@ class CardServiceImplTest {
     }
 
     @Test
-    @DisplayName("Получение карты текущим пользователем - успешное возвращение")
+    @DisplayName("Получение карты текущим пользователем - снимок из кеша, без обращения к БД")
     void whenGetCardByCardOwnerThenSuccess() {
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
-        when(userService.getCurrentUser()).thenReturn(testUser);
-        when(userRepository.existsById(1L)).thenReturn(true);
-
         CardResponse expectedResponse = CardResponse.builder()
                 .id(1L)
                 .clientId(1L)
                 .status(ACTIVE)
                 .build();
 
-        when(cardMapper.mapToResponseDTO(testCard)).thenReturn(expectedResponse);
+        when(cardSnapshotCache.get(1L)).thenReturn(new CardSnapshot(expectedResponse, new BigDecimal("1000.00")));
+        when(userService.getCurrentUser()).thenReturn(testUser);
 
         CardResponse result = cardService.getCard(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals(1L, result.getClientId());
-        verify(cardRepository).findById(1L);
         verify(userService).getCurrentUser();
+        verify(cardRepository, never()).findById(any());
     }
 
     @Test
     @DisplayName("Получение карты администратором - успешное возвращение")
     void whenGetCardByAdminThenSuccess() {
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
-        when(userService.getCurrentUser()).thenReturn(adminUser);
-        when(userRepository.existsById(1L)).thenReturn(true);
-
         CardResponse expectedResponse = CardResponse.builder()
                 .id(1L)
                 .clientId(1L)
                 .status(ACTIVE)
                 .build();
 
-        when(cardMapper.mapToResponseDTO(testCard)).thenReturn(expectedResponse);
+        when(cardSnapshotCache.get(1L)).thenReturn(new CardSnapshot(expectedResponse, new BigDecimal("1000.00")));
+        when(userService.getCurrentUser()).thenReturn(adminUser);
 
         CardResponse result = cardService.getCard(1L);
 
@@ -230,10 +273,25 @@ class CardServiceImplTest {
         verify(userService).getCurrentUser();
     }
 
+    @Test
+    @DisplayName("Получение баланса чужой карты - отказ в доступе по снимку из кеша")
+    void whenGetForeignCardBalanceThenAccessDenied() {
+        CardResponse foreignCard = CardResponse.builder()
+                .id(1L)
+                .clientId(5L)
+                .status(ACTIVE)
+                .build();
+
+        when(cardSnapshotCache.get(1L)).thenReturn(new CardSnapshot(foreignCard, new BigDecimal("1000.00")));
+        when(userService.getCurrentUser()).thenReturn(testUser);
+
+        assertThrows(AccessDeniedException.class, () -> cardService.getCardBalance(1L));
+    }
+
     @Test
     @DisplayName("Получение несуществующей карты - выбрасывается исключение")
     void whenGetNonExistingCardThenThrowException() {
-        when(cardRepository.findById(999L)).thenReturn(Optional.empty());
+        when(cardSnapshotCache.get(999L)).thenThrow(new EntityNotFoundException("Карта с номером Id 999 отсутствует"));
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
@@ -241,7 +299,6 @@ class CardServiceImplTest {
         );
 
         assertTrue(exception.getMessage().contains("отсутствует"));
-        verify(cardRepository).findById(999L);
         verify(userService, never()).getCurrentUser();
     }
 
@@ -286,7 +343,6 @@ class CardServiceImplTest {
         when(cardRepository.findByIdWithLock(1L)).thenReturn(Optional.of(fromCard));
         when(cardRepository.findByIdWithLock(2L)).thenReturn(Optional.of(toCard));
         when(userService.getCurrentUser()).thenReturn(testUser);
-        when(userRepository.existsById(1L)).thenReturn(true);
         when(transferRepository.save(any(Transfer.class))).thenReturn(transfer);
         when(transferMapper.toCardTransferResponse(transfer)).thenReturn(expectedResponse);
 
@@ -299,6 +355,10 @@ class CardServiceImplTest {
         verify(cardRepository).findByIdWithLock(1L);
         verify(cardRepository).findByIdWithLock(2L);
         verify(transferRepository).save(any(Transfer.class));
+        verify(transferOutboxService).append(argThat(transfers -> transfers.size() == 1));
+        verify(cardSnapshotCache).evictAfterCommit(List.of(1L, 2L));
+        verify(userService, times(1)).getCurrentUser();
+        verify(userRepository, never()).existsById(any());
     }
 
     @Test
@@ -328,7 +388,6 @@ class CardServiceImplTest {
         when(cardRepository.findByIdWithLock(1L)).thenReturn(Optional.of(fromCard));
         when(cardRepository.findByIdWithLock(2L)).thenReturn(Optional.of(toCard));
         when(userService.getCurrentUser()).thenReturn(testUser);
-        when(userRepository.existsById(1L)).thenReturn(true);
 
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
@@ -336,6 +395,243 @@ class CardServiceImplTest {
         );
 
         assertTrue(exception.getMessage().contains("недостаточно средств"));
+        assertEquals(1, meterRegistry.get("card.transfer").tag("outcome", "insufficient_funds").timer().count());
+        assertEquals(2, meterRegistry.get("card.lock.wait").timer().count());
+    }
+
+    @Test
+    @DisplayName("Встречный перевод - карты блокируются по возрастанию id")
+    void whenTransferFromHigherIdToLowerIdThenLowerIdIsLockedFirst() {
+        Card lowerCard = Card.builder()
+                .id(1L)
+                .clientId(1L)
+                .status(ACTIVE)
+                .balance(new BigDecimal("500.00"))
+                .build();
+
+        Card higherCard = Card.builder()
+                .id(2L)
+                .clientId(1L)
+                .status(ACTIVE)
+                .balance(new BigDecimal("1000.00"))
+                .build();
+
+        CardTransferRequest request = CardTransferRequest.builder()
+                .fromCardId(2L)
+                .toCardId(1L)
+                .amount(new BigDecimal("200.00"))
+                .build();
+
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(cardRepository.findByIdWithLock(1L)).thenReturn(Optional.of(lowerCard));
+        when(cardRepository.findByIdWithLock(2L)).thenReturn(Optional.of(higherCard));
+        when(transferRepository.save(any(Transfer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        cardService.transferBetweenCards(request);
+
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).findByIdWithLock(1L);
+        inOrder.verify(cardRepository).findByIdWithLock(2L);
+        assertEquals(new BigDecimal("800.00"), higherCard.getBalance());
+        assertEquals(new BigDecimal("700.00"), lowerCard.getBalance());
+        verify(transferRepository).save(argThat(transfer ->
+                transfer.getFromCardId().equals(2L) && transfer.getToCardId().equals(1L)
+        ));
+    }
+
+    @Test
+    @DisplayName("Повтор перевода с выполненным ключом идемпотентности - сохранённый ответ без блокировки карт")
+    void whenIdempotencyKeyAlreadyCompletedThenStoredResponseIsReturned() {
+        CardTransferRequest request = CardTransferRequest.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(new BigDecimal("200.00"))
+                .build();
+        CardTransferResponse storedResponse = CardTransferResponse.builder()
+                .transactionId(10L)
+                .build();
+
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(transferIdempotencyService.findCompleted(1L, "key-1", request)).thenReturn(Optional.of(storedResponse));
+
+        CardTransferResponse result = cardService.transferBetweenCards(request, "key-1");
+
+        assertEquals(10L, result.getTransactionId());
+        verify(cardRepository, never()).findByIdWithLock(any());
+        verify(transferIdempotencyService, never()).reserve(any(), any(), any());
+        assertEquals(1.0, meterRegistry.get("card.transfer.idempotent.replay").counter().count());
+    }
+
+    @Test
+    @DisplayName("Параллельный дубль ключа идемпотентности - возвращается перевод первого запроса")
+    void whenIdempotencyKeyReservedConcurrentlyThenWinnerResponseIsReturned() {
+        CardTransferRequest request = CardTransferRequest.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(new BigDecimal("200.00"))
+                .build();
+        CardTransferResponse winnerResponse = CardTransferResponse.builder()
+                .transactionId(11L)
+                .build();
+
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(transferIdempotencyService.findCompleted(1L, "key-1", request))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winnerResponse));
+        when(transferIdempotencyService.reserve(eq(1L), eq("key-1"), any())).thenReturn(false);
+
+        CardTransferResponse result = cardService.transferBetweenCards(request, "key-1");
+
+        assertEquals(11L, result.getTransactionId());
+        verify(cardRepository, never()).findByIdWithLock(any());
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Нарушение ограничения в самом переводе с ключом идемпотентности - ошибка не выдаётся за дубль ключа")
+    void whenTransferWithIdempotencyKeyViolatesConstraintThenExceptionIsPropagated() {
+        Card fromCard = Card.builder().id(1L).clientId(1L).status(ACTIVE).balance(new BigDecimal("1000.00")).build();
+        Card toCard = Card.builder().id(2L).clientId(1L).status(ACTIVE).balance(new BigDecimal("500.00")).build();
+        CardTransferRequest request = CardTransferRequest.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(new BigDecimal("200.00"))
+                .build();
+
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(transferIdempotencyService.findCompleted(1L, "key-1", request)).thenReturn(Optional.empty());
+        when(transferIdempotencyService.reserve(eq(1L), eq("key-1"), any())).thenReturn(true);
+        when(cardRepository.findByIdWithLock(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdWithLock(2L)).thenReturn(Optional.of(toCard));
+        when(transferRepository.save(any(Transfer.class)))
+                .thenThrow(new DataIntegrityViolationException("violates check constraint"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> cardService.transferBetweenCards(request, "key-1"));
+        verify(transferIdempotencyService, times(1)).findCompleted(1L, "key-1", request);
+    }
+
+    @Test
+    @DisplayName("Зачисление на горячую карту - блокируется только карта отправителя, сумма идёт в слот")
+    void whenStripedCreditToHotCardThenOnlySourceCardIsLocked() {
+        ReflectionTestUtils.setField(cardService, "stripedCredits", true);
+
+        Card fromCard = Card.builder().id(5L).clientId(1L).status(ACTIVE).balance(new BigDecimal("300.00")).build();
+        Card hotCard = Card.builder().id(1L).clientId(1L).status(ACTIVE).balance(new BigDecimal("1000.00"))
+                .balanceSlots(8).build();
+
+        CardTransferRequest request = CardTransferRequest.builder()
+                .fromCardId(5L)
+                .toCardId(1L)
+                .amount(new BigDecimal("100.00"))
+                .build();
+
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(cardRepository.findStripedIdsByIdIn(List.of(5L, 1L))).thenReturn(List.of(1L));
+        when(cardRepository.findByIdWithLock(5L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(hotCard));
+        when(cardBalanceService.creditSlot(hotCard, 5L, new BigDecimal("100.00"))).thenReturn(true);
+        when(transferRepository.save(any(Transfer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        cardService.transferBetweenCards(request);
+
+        assertEquals(new BigDecimal("200.00"), fromCard.getBalance());
+        assertEquals(new BigDecimal("1000.00"), hotCard.getBalance());
+        verify(cardRepository, never()).findByIdWithLock(1L);
+        verify(transferRepository).save(argThat(transfer ->
+                transfer.getToCardNewBalance() == null
+        ));
+    }
+
+    @Test
+    @DisplayName("Пакетный перевод - каждая карта блокируется один раз по возрастанию id, переводы видят предыдущие")
+    void whenBatchTransferThenCardsAreLockedOnceInAscendingOrder() {
+        Card companyCard = Card.builder().id(3L).clientId(1L).status(ACTIVE).balance(new BigDecimal("100.00")).build();
+        Card firstCard = Card.builder().id(1L).clientId(1L).status(ACTIVE).balance(new BigDecimal("0.00")).build();
+        Card secondCard = Card.builder().id(2L).clientId(1L).status(ACTIVE).balance(new BigDecimal("0.00")).build();
+
+        CardBatchTransferRequest request = CardBatchTransferRequest.builder()
+                .mode(ALL_OR_NOTHING)
+                .transfers(List.of(
+                        CardTransferRequest.builder().fromCardId(3L).toCardId(1L).amount(new BigDecimal("100.00")).build(),
+                        CardTransferRequest.builder().fromCardId(1L).toCardId(2L).amount(new BigDecimal("40.00")).build()
+                ))
+                .build();
+
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(cardRepository.findAllByIdInWithLock(List.of(1L, 2L, 3L))).thenReturn(List.of(firstCard, secondCard, companyCard));
+        when(transferRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CardBatchTransferResponse result = cardService.transferBatch(request);
+
+        assertEquals(2, result.getCompletedCount());
+        assertEquals(0, result.getFailedCount());
+        assertEquals(new BigDecimal("0.00"), companyCard.getBalance());
+        assertEquals(new BigDecimal("60.00"), firstCard.getBalance());
+        assertEquals(new BigDecimal("40.00"), secondCard.getBalance());
+        verify(cardRepository, times(1)).findAllByIdInWithLock(any());
+        verify(cardRepository, never()).findByIdWithLock(any());
+        verify(transferRepository).saveAll(argThat(transfers -> ((List<Transfer>) transfers).size() == 2));
+        verify(transferOutboxService).append(argThat(transfers -> transfers.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Пакетный перевод BEST_EFFORT - выполняются только прошедшие проверку переводы")
+    void whenBestEffortBatchHasFailedItemThenOtherItemsAreApplied() {
+        Card fromCard = Card.builder().id(1L).clientId(1L).status(ACTIVE).balance(new BigDecimal("100.00")).build();
+        Card toCard = Card.builder().id(2L).clientId(1L).status(ACTIVE).balance(new BigDecimal("0.00")).build();
+
+        CardBatchTransferRequest request = CardBatchTransferRequest.builder()
+                .mode(BEST_EFFORT)
+                .transfers(List.of(
+                        CardTransferRequest.builder().fromCardId(1L).toCardId(2L).amount(new BigDecimal("70.00")).build(),
+                        CardTransferRequest.builder().fromCardId(1L).toCardId(2L).amount(new BigDecimal("70.00")).build(),
+                        CardTransferRequest.builder().fromCardId(1L).toCardId(99L).amount(new BigDecimal("10.00")).build()
+                ))
+                .build();
+
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(cardRepository.findAllByIdInWithLock(List.of(1L, 2L, 99L))).thenReturn(List.of(fromCard, toCard));
+        when(transferRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CardBatchTransferResponse result = cardService.transferBatch(request);
+
+        assertEquals(1, result.getCompletedCount());
+        assertEquals(2, result.getFailedCount());
+        assertEquals(COMPLETED, result.getItems().get(0).getStatus());
+        assertEquals(FAILED, result.getItems().get(1).getStatus());
+        assertTrue(result.getItems().get(1).getError().contains("недостаточно средств"));
+        assertEquals(FAILED, result.getItems().get(2).getStatus());
+        assertEquals(new BigDecimal("30.00"), fromCard.getBalance());
+        assertEquals(new BigDecimal("70.00"), toCard.getBalance());
+    }
+
+    @Test
+    @DisplayName("Пакетный перевод ALL_OR_NOTHING с ошибкой - ничего не записывается")
+    void whenAllOrNothingBatchHasFailedItemThenNothingIsApplied() {
+        Card fromCard = Card.builder().id(1L).clientId(1L).status(ACTIVE).balance(new BigDecimal("100.00")).build();
+        Card toCard = Card.builder().id(2L).clientId(1L).status(ACTIVE).balance(new BigDecimal("0.00")).build();
+
+        CardBatchTransferRequest request = CardBatchTransferRequest.builder()
+                .mode(ALL_OR_NOTHING)
+                .transfers(List.of(
+                        CardTransferRequest.builder().fromCardId(1L).toCardId(2L).amount(new BigDecimal("70.00")).build(),
+                        CardTransferRequest.builder().fromCardId(1L).toCardId(2L).amount(new BigDecimal("70.00")).build()
+                ))
+                .build();
+
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(cardRepository.findAllByIdInWithLock(List.of(1L, 2L))).thenReturn(List.of(fromCard, toCard));
+
+        CardBatchTransferResponse result = cardService.transferBatch(request);
+
+        assertEquals(0, result.getCompletedCount());
+        assertEquals(1, result.getFailedCount());
+        assertEquals(ROLLED_BACK, result.getItems().get(0).getStatus());
+        assertEquals(FAILED, result.getItems().get(1).getStatus());
+        assertEquals(new BigDecimal("100.00"), fromCard.getBalance());
+        assertEquals(new BigDecimal("0.00"), toCard.getBalance());
+        verify(cardRepository, never()).saveAll(any());
+        verify(transferRepository, never()).saveAll(any());
     }
 
     @Test
@@ -356,7 +652,7 @@ class CardServiceImplTest {
                 .balance(new BigDecimal("1500.00"))
                 .build();
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
+        when(cardRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testCard));
         when(cardRepository.save(any(Card.class))).thenReturn(updatedCard);
         when(cardMapper.mapToResponseDTO(updatedCard)).thenReturn(expectedResponse);
 
@@ -364,8 +660,9 @@ class CardServiceImplTest {
 
         assertNotNull(result);
         assertEquals(new BigDecimal("1500.00"), result.getBalance());
-        verify(cardRepository).findById(1L);
+        verify(cardRepository).findByIdWithLock(1L);
         verify(cardRepository).save(any(Card.class));
+        verify(cardSnapshotCache).evictAfterCommit(List.of(1L));
     }
 
     @Test
@@ -378,7 +675,6 @@ class CardServiceImplTest {
         ));
 
         when(userService.getCurrentUser()).thenReturn(testUser);
-        when(userRepository.existsById(1L)).thenReturn(true);
         when(cardRepository.findAllByClientId(1L, pageRequest)).thenReturn(cardPage);
         when(cardMapper.mapToResponseDTO(testCard)).thenReturn(CardResponse.builder().id(1L).build());
 
@@ -411,7 +707,6 @@ class CardServiceImplTest {
 
         when(cardRepository.findById(1L)).thenReturn(Optional.of(activeCard));
         when(userService.getCurrentUser()).thenReturn(testUser);
-        when(userRepository.existsById(1L)).thenReturn(true);
         when(cardRepository.save(any(Card.class))).thenReturn(blockedCard);
         when(cardMapper.mapToResponseDTO(blockedCard)).thenReturn(expectedResponse);
 
@@ -422,6 +717,7 @@ class CardServiceImplTest {
         verify(cardRepository).save(argThat(card ->
                 card.getStatus() == REQUEST_FOR_BLOCKING
         ));
+        verify(cardSnapshotCache).evictAfterCommit(List.of(1L));
     }
 
     @Test
@@ -435,7 +731,6 @@ class CardServiceImplTest {
 
         when(cardRepository.findById(1L)).thenReturn(Optional.of(expiredCard));
         when(userService.getCurrentUser()).thenReturn(testUser);
-        when(userRepository.existsById(1L)).thenReturn(true);
 
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
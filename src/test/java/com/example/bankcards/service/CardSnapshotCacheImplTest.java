@@ -0,0 +1,114 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardSnapshotCache.CardSnapshot;
+import com.example.bankcards.service.impl.CardSnapshotCacheImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.bankcards.entity.enums.CardStatus.ACTIVE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CardSnapshotCacheImplTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardMapper cardMapper;
+
+    @Mock
+    private CardBalanceService cardBalanceService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CardSnapshotCacheImpl cardSnapshotCache;
+
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        cardSnapshotCache = new CardSnapshotCacheImpl(cardRepository, cardMapper, cardBalanceService,
+                transactionManager, meterRegistry, 100, Duration.ofMinutes(10));
+
+        card = Card.builder()
+                .id(1L)
+                .lastFourDigits("3456")
+                .clientId(1L)
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(ACTIVE)
+                .balance(new BigDecimal("1000.00"))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Повторное чтение карты - снимок из кеша без обращения к БД, попадание учтено в метриках")
+    void whenGetTwiceThenSecondReadIsCacheHit() {
+        CardResponse response = CardResponse.builder().id(1L).clientId(1L).build();
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(cardMapper.mapToResponseDTO(card)).thenReturn(response);
+        when(cardBalanceService.getTotalBalance(card)).thenReturn(new BigDecimal("1200.00"));
+
+        CardSnapshot first = cardSnapshotCache.get(1L);
+        CardSnapshot second = cardSnapshotCache.get(1L);
+
+        assertSame(first, second);
+        assertSame(response, second.card());
+        assertEquals(0, new BigDecimal("1200.00").compareTo(second.totalBalance()));
+        verify(cardRepository, times(1)).findById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "card.snapshot").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "card.snapshot").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Сброс снимка вне транзакции - следующее чтение загружает карту заново")
+    void whenEvictedThenNextReadLoadsCard() {
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(cardMapper.mapToResponseDTO(card)).thenReturn(CardResponse.builder().id(1L).clientId(1L).build());
+
+        cardSnapshotCache.get(1L);
+        cardSnapshotCache.evictAfterCommit(List.of(1L));
+        cardSnapshotCache.get(1L);
+
+        verify(cardRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Несуществующая карта - исключение, отсутствие карты не кешируется")
+    void whenCardMissingThenNotCached() {
+        when(cardRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> cardSnapshotCache.get(999L));
+        assertThrows(EntityNotFoundException.class, () -> cardSnapshotCache.get(999L));
+
+        verify(cardRepository, times(2)).findById(999L);
+    }
+}
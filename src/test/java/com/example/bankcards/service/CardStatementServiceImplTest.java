@@ -0,0 +1,233 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.CardStatementResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardBalanceSnapshotState;
+import com.example.bankcards.entity.CardDailyBalance;
+import com.example.bankcards.entity.CardDailyBalanceId;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.CardBalanceSnapshotStateRepository;
+import com.example.bankcards.repository.CardDailyBalanceRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.impl.CardStatementServiceImpl;
+import com.example.bankcards.util.DateRanges;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CardStatementServiceImplTest {
+
+    private static final LocalDate YESTERDAY = LocalDate.now().minusDays(1);
+
+    /**
+     * Последний день, который можно считать при card.statement.snapshot.lag = 1d.
+     */
+    private static final LocalDate CLOSED_DAY = YESTERDAY.minusDays(1);
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private CardDailyBalanceRepository cardDailyBalanceRepository;
+
+    @Mock
+    private CardBalanceSnapshotStateRepository snapshotStateRepository;
+
+    @Mock
+    private CardBalanceService cardBalanceService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CardStatementServiceImpl cardStatementService;
+
+    @BeforeEach
+    void setUp() {
+        cardStatementService = new CardStatementServiceImpl(transferRepository, cardDailyBalanceRepository,
+                snapshotStateRepository, cardBalanceService, entityManager, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(cardStatementService, "lag", Duration.ofDays(1));
+    }
+
+    @Test
+    @DisplayName("Снимки за закрытый день - строка на карту, водяной знак сдвигается")
+    void whenSnapshotClosedDaysThenDailyBalancesArePersisted() {
+        CardBalanceSnapshotState state = new CardBalanceSnapshotState((short) 1, CLOSED_DAY.minusDays(1));
+        when(snapshotStateRepository.findById((short) 1)).thenReturn(Optional.of(state));
+        when(snapshotStateRepository.findByIdWithLock((short) 1)).thenReturn(Optional.of(state));
+        when(transferRepository.streamAllByCreatedAtRange(CLOSED_DAY.atStartOfDay(), YESTERDAY.atStartOfDay()))
+                .thenReturn(Stream.of(
+                        transfer(1L, 10L, 20L, "100.00", "900.00", "100.00", CLOSED_DAY.atTime(9, 0)),
+                        transfer(2L, 20L, 10L, "30.00", "70.00", "930.00", CLOSED_DAY.atTime(18, 0))));
+
+        int days = cardStatementService.snapshotClosedDays();
+
+        ArgumentCaptor<CardDailyBalance> captor = ArgumentCaptor.forClass(CardDailyBalance.class);
+        verify(entityManager, times(2)).persist(captor.capture());
+        List<CardDailyBalance> balances = captor.getAllValues().stream()
+                .sorted(Comparator.comparing(balance -> balance.getId().getCardId()))
+                .toList();
+
+        assertEquals(1, days);
+        assertEquals(CLOSED_DAY, state.getLastSnapshotDate());
+        assertBalance(balances.get(0), "30.00", "100.00");
+        assertBalance(balances.get(1), "100.00", "30.00");
+        assertEquals(2, balances.get(0).getTransferCount());
+    }
+
+    @Test
+    @DisplayName("Вчерашний день не считается, пока не прошёл lag: поздние коммиты переводов ещё возможны")
+    void whenDayEndedWithinLagThenItIsNotSnapshotted() {
+        CardBalanceSnapshotState state = new CardBalanceSnapshotState((short) 1, CLOSED_DAY);
+        when(snapshotStateRepository.findById((short) 1)).thenReturn(Optional.of(state));
+
+        int days = cardStatementService.snapshotClosedDays();
+
+        assertEquals(0, days);
+        assertEquals(CLOSED_DAY, state.getLastSnapshotDate());
+        verify(transferRepository, never()).streamAllByCreatedAtRange(any(), any());
+    }
+
+    @Test
+    @DisplayName("Выписка - снимки в периоде и суммы ещё не посчитанных переводов, баланс от текущего")
+    void whenGetStatementThenSnapshotsAndPendingTransfersAreCombined() {
+        Card card = Card.builder().id(10L).build();
+        LocalDate from = YESTERDAY.minusDays(5);
+        LocalDate snapshotted = YESTERDAY.minusDays(1);
+        LocalDateTime periodEnd = LocalDate.now().plusDays(1).atStartOfDay();
+
+        when(snapshotStateRepository.findById((short) 1))
+                .thenReturn(Optional.of(new CardBalanceSnapshotState((short) 1, snapshotted)));
+        when(cardDailyBalanceRepository.findAllBetween(10L, from, snapshotted))
+                .thenReturn(List.of(
+                        dailyBalance(from.plusDays(1), "200.00", "0.00", 1),
+                        dailyBalance(snapshotted, "0.00", "50.00", 1)));
+        when(transferRepository.sumIncomingByCreatedAtRange(10L, YESTERDAY.atStartOfDay(), periodEnd))
+                .thenReturn(new BigDecimal("25.00"));
+        when(transferRepository.sumOutgoingByCreatedAtRange(10L, YESTERDAY.atStartOfDay(), periodEnd))
+                .thenReturn(BigDecimal.ZERO);
+        when(transferRepository.countByCardIdAndCreatedAtRange(10L, YESTERDAY.atStartOfDay(), periodEnd))
+                .thenReturn(1L);
+        when(transferRepository.sumIncomingByCreatedAtRange(10L, periodEnd, DateRanges.endOf(null)))
+                .thenReturn(BigDecimal.ZERO);
+        when(transferRepository.sumOutgoingByCreatedAtRange(10L, periodEnd, DateRanges.endOf(null)))
+                .thenReturn(BigDecimal.ZERO);
+        when(cardBalanceService.getTotalBalance(card)).thenReturn(new BigDecimal("575.00"));
+
+        CardStatementResponse statement = cardStatementService.getStatement(card, from, LocalDate.now());
+
+        assertEquals(0, new BigDecimal("400.00").compareTo(statement.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("575.00").compareTo(statement.getClosingBalance()));
+        assertEquals(0, new BigDecimal("225.00").compareTo(statement.getTotalIn()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(statement.getTotalOut()));
+        assertEquals(3, statement.getTransferCount());
+    }
+
+    @Test
+    @DisplayName("Выписка без снимков - обороты периода и после него только суммами переводов")
+    void whenNoSnapshotsThenStatementIsAggregatedFromTransfers() {
+        Card card = Card.builder().id(10L).build();
+        LocalDate from = YESTERDAY.minusDays(3);
+        LocalDateTime periodStart = from.atStartOfDay();
+        LocalDateTime periodEnd = YESTERDAY.atStartOfDay();
+
+        when(snapshotStateRepository.findById((short) 1))
+                .thenReturn(Optional.of(new CardBalanceSnapshotState((short) 1, null)));
+        when(transferRepository.sumIncomingByCreatedAtRange(10L, periodStart, periodEnd))
+                .thenReturn(new BigDecimal("100.00"));
+        when(transferRepository.sumOutgoingByCreatedAtRange(10L, periodStart, periodEnd))
+                .thenReturn(new BigDecimal("40.00"));
+        when(transferRepository.countByCardIdAndCreatedAtRange(10L, periodStart, periodEnd))
+                .thenReturn(3L);
+        when(transferRepository.sumIncomingByCreatedAtRange(10L, periodEnd, DateRanges.endOf(null)))
+                .thenReturn(new BigDecimal("10.00"));
+        when(transferRepository.sumOutgoingByCreatedAtRange(10L, periodEnd, DateRanges.endOf(null)))
+                .thenReturn(new BigDecimal("60.00"));
+        when(cardBalanceService.getTotalBalance(card)).thenReturn(new BigDecimal("300.00"));
+
+        CardStatementResponse statement = cardStatementService.getStatement(card, from, YESTERDAY.minusDays(1));
+
+        assertEquals(0, new BigDecimal("290.00").compareTo(statement.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("350.00").compareTo(statement.getClosingBalance()));
+        assertEquals(3, statement.getTransferCount());
+        verify(cardDailyBalanceRepository, never()).findAllBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Выписка за период без переводов - баланс равен текущему")
+    void whenNoTransfersThenStatementUsesCurrentBalance() {
+        Card card = Card.builder().id(10L).build();
+
+        when(snapshotStateRepository.findById((short) 1))
+                .thenReturn(Optional.of(new CardBalanceSnapshotState((short) 1, YESTERDAY)));
+        when(cardDailyBalanceRepository.findAllBetween(10L, YESTERDAY, YESTERDAY)).thenReturn(List.of());
+        when(transferRepository.sumIncomingByCreatedAtRange(eq(10L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(BigDecimal.ZERO);
+        when(transferRepository.sumOutgoingByCreatedAtRange(eq(10L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(BigDecimal.ZERO);
+        when(transferRepository.countByCardIdAndCreatedAtRange(eq(10L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(0L);
+        when(cardBalanceService.getTotalBalance(card)).thenReturn(new BigDecimal("300.00"));
+
+        CardStatementResponse statement = cardStatementService.getStatement(card, YESTERDAY, LocalDate.now());
+
+        assertEquals(0, new BigDecimal("300.00").compareTo(statement.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("300.00").compareTo(statement.getClosingBalance()));
+        assertEquals(0, statement.getTransferCount());
+    }
+
+    private static Transfer transfer(Long id, Long fromCardId, Long toCardId, String amount,
+                                     String fromCardNewBalance, String toCardNewBalance, LocalDateTime createdAt) {
+        return Transfer.builder()
+                .id(id)
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(new BigDecimal(amount))
+                .fromCardNewBalance(new BigDecimal(fromCardNewBalance))
+                .toCardNewBalance(new BigDecimal(toCardNewBalance))
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static CardDailyBalance dailyBalance(LocalDate date, String totalIn, String totalOut, int transferCount) {
+        return CardDailyBalance.builder()
+                .id(new CardDailyBalanceId(10L, date))
+                .totalIn(new BigDecimal(totalIn))
+                .totalOut(new BigDecimal(totalOut))
+                .transferCount(transferCount)
+                .build();
+    }
+
+    private static void assertBalance(CardDailyBalance balance, String totalIn, String totalOut) {
+        assertEquals(0, new BigDecimal(totalIn).compareTo(balance.getTotalIn()));
+        assertEquals(0, new BigDecimal(totalOut).compareTo(balance.getTotalOut()));
+    }
+}
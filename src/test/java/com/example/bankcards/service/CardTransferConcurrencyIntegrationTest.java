@@ -0,0 +1,135 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.BaseIntegrationTest;
+import com.example.bankcards.dto.request.CardTransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CardTransferConcurrencyIntegrationTest extends BaseIntegrationTest {
+
+    private static final int THREADS = 4;
+    private static final int TRANSFERS_PER_THREAD = 25;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private Card firstCard;
+    private Card secondCard;
+
+    @BeforeEach
+    void setUp() {
+        transferRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(User.builder()
+                .username("concurrentUser")
+                .password("password123")
+                .role(Role.ROLE_USER)
+                .build());
+
+        firstCard = cardRepository.save(card("encrypted-first", "1111"));
+        secondCard = cardRepository.save(card("encrypted-second", "2222"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transferRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Встречные переводы между парой карт из нескольких потоков - без взаимоблокировок, сумма сохраняется")
+    void whenOppositeTransfersRunConcurrentlyThenAllSucceedAndTotalIsPreserved() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                boolean forward = thread % 2 == 0;
+                results.add(executor.submit(transfers(forward)));
+            }
+
+            int completed = 0;
+            for (Future<Integer> result : results) {
+                completed += result.get();
+            }
+
+            assertEquals(THREADS * TRANSFERS_PER_THREAD, completed);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BigDecimal total = cardRepository.findById(firstCard.getId()).orElseThrow().getBalance()
+                .add(cardRepository.findById(secondCard.getId()).orElseThrow().getBalance());
+
+        assertEquals(0, new BigDecimal("2000.00").compareTo(total));
+        assertEquals(THREADS * TRANSFERS_PER_THREAD, transferRepository.count());
+    }
+
+    private Callable<Integer> transfers(boolean forward) {
+        return () -> {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+            try {
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    cardService.transferBetweenCards(CardTransferRequest.builder()
+                            .fromCardId(forward ? firstCard.getId() : secondCard.getId())
+                            .toCardId(forward ? secondCard.getId() : firstCard.getId())
+                            .amount(BigDecimal.ONE)
+                            .build());
+                }
+                return TRANSFERS_PER_THREAD;
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private Card card(String encryptedCardNumber, String lastFourDigits) {
+        return Card.builder()
+                .encryptedCardNumber(encryptedCardNumber)
+                .lastFourDigits(lastFourDigits)
+                .clientId(owner.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("1000.00"))
+                .build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.BaseIntegrationTest;
+import com.example.bankcards.dto.request.CardTransferRequest;
+import com.example.bankcards.dto.request.UpdateCardRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardBalanceSlotRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferOutboxRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "card.transfer.striped-credits=true")
+class StripedBalanceIntegrationTest extends BaseIntegrationTest {
+
+    private static final int SLOTS = 4;
+    private static final int THREADS = 4;
+    private static final int TRANSFERS_PER_THREAD = 25;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardBalanceSlotRepository cardBalanceSlotRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransferOutboxRepository transferOutboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private Card hotCard;
+    private final List<Card> sourceCards = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        owner = userRepository.save(User.builder()
+                .username("stripedUser")
+                .password("password123")
+                .role(Role.ROLE_USER)
+                .build());
+
+        hotCard = cardRepository.save(card("encrypted-hot", "0000"));
+        cardService.updateCard(hotCard.getId(), UpdateCardRequest.builder().balanceSlots(SLOTS).build());
+
+        sourceCards.clear();
+        for (int i = 0; i < THREADS; i++) {
+            sourceCards.add(cardRepository.save(card("encrypted-source-" + i, String.format("%04d", i + 1))));
+        }
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("Параллельные зачисления на горячую карту - идут в слоты, баланс карты равен сумме с учётом слотов")
+    void whenConcurrentCreditsToHotCardThenSlotsHoldCreditsAndBalanceIncludesThem() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (Card sourceCard : sourceCards) {
+                results.add(executor.submit(credits(sourceCard)));
+            }
+
+            int completed = 0;
+            for (Future<Integer> result : results) {
+                completed += result.get();
+            }
+
+            assertEquals(THREADS * TRANSFERS_PER_THREAD, completed);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BigDecimal credited = BigDecimal.valueOf(THREADS * TRANSFERS_PER_THREAD);
+
+        assertEquals(0, new BigDecimal("1000.00").compareTo(cardRepository.findById(hotCard.getId()).orElseThrow().getBalance()));
+        assertEquals(0, credited.compareTo(cardBalanceSlotRepository.sumBalanceByCardId(hotCard.getId())));
+        assertEquals(0, new BigDecimal("1000.00").add(credited).compareTo(cardService.getCardBalance(hotCard.getId())));
+    }
+
+    @Test
+    @DisplayName("Списание с горячей карты больше основного баланса - слоты сводятся в баланс карты")
+    void whenDebitFromHotCardExceedsMainBalanceThenSlotsAreCollected() {
+        Card sourceCard = sourceCards.get(0);
+        transfer(sourceCard.getId(), hotCard.getId(), new BigDecimal("500.00"));
+
+        transfer(hotCard.getId(), sourceCard.getId(), new BigDecimal("1200.00"));
+
+        assertEquals(0, new BigDecimal("300.00").compareTo(cardRepository.findById(hotCard.getId()).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(cardBalanceSlotRepository.sumBalanceByCardId(hotCard.getId())));
+        assertEquals(0, new BigDecimal("1700.00").compareTo(cardService.getCardBalance(sourceCard.getId())));
+    }
+
+    private Callable<Integer> credits(Card sourceCard) {
+        return () -> {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+            try {
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    transfer(sourceCard.getId(), hotCard.getId(), BigDecimal.ONE);
+                }
+                return TRANSFERS_PER_THREAD;
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private void transfer(Long fromCardId, Long toCardId, BigDecimal amount) {
+        cardService.transferBetweenCards(CardTransferRequest.builder()
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(amount)
+                .build());
+    }
+
+    private void cleanUp() {
+        transferOutboxRepository.deleteAll();
+        transferRepository.deleteAll();
+        cardBalanceSlotRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Card card(String encryptedCardNumber, String lastFourDigits) {
+        return Card.builder()
+                .encryptedCardNumber(encryptedCardNumber)
+                .lastFourDigits(lastFourDigits)
+                .clientId(owner.getId())
+                .expirationDate(LocalDate.now().plusYears(2))
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("1000.00"))
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.enums.TransferExportFormat;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.mapper.impl.TransferMapperImpl;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.impl.TransferExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransferExportServiceImplTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransferExportServiceImpl transferExportService;
+
+    private final Transfer first = Transfer.builder()
+            .id(1L).fromCardId(10L).toCardId(20L)
+            .amount(new BigDecimal("100.00"))
+            .fromCardNewBalance(new BigDecimal("900.00"))
+            .toCardNewBalance(new BigDecimal("100.00"))
+            .description("Оплата, \"аренда\"")
+            .createdAt(LocalDateTime.of(2026, 10, 1, 12, 0))
+            .build();
+
+    private final Transfer second = Transfer.builder()
+            .id(2L).fromCardId(20L).toCardId(10L)
+            .amount(new BigDecimal("50.00"))
+            .fromCardNewBalance(new BigDecimal("50.00"))
+            .toCardNewBalance(new BigDecimal("950.00"))
+            .createdAt(LocalDateTime.of(2026, 10, 2, 9, 30))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        transferExportService = new TransferExportServiceImpl(transferRepository, new TransferMapperImpl(),
+                entityManager, new ObjectMapper().findAndRegisterModules(), transactionManager);
+    }
+
+    @Test
+    @DisplayName("Выгрузка в CSV - заголовок, строка на перевод, описание экранировано")
+    void whenExportCsvThenEveryTransferIsWrittenAndDetached() {
+        when(transferRepository.streamAllByCreatedAtRange(
+                LocalDate.of(2026, 10, 1).atStartOfDay(), LocalDate.of(2026, 11, 1).atStartOfDay()))
+                .thenReturn(Stream.of(first, second));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = transferExportService.export(TransferExportFormat.CSV,
+                LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 31), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,from_card_id,to_card_id"));
+        assertEquals("1,10,20,100.00,900.00,100.00,\"Оплата, \"\"аренда\"\"\",2026-10-01T12:00", lines[1]);
+        assertEquals("2,20,10,50.00,50.00,950.00,,2026-10-02T09:30", lines[2]);
+        verify(entityManager, times(2)).detach(any(Transfer.class));
+    }
+
+    @Test
+    @DisplayName("Выгрузка в NDJSON - по одному JSON-объекту на строку")
+    void whenExportNdjsonThenEveryLineIsJsonObject() throws Exception {
+        when(transferRepository.streamAllByCreatedAtRange(
+                LocalDate.of(1970, 1, 1).atStartOfDay(), LocalDate.of(9999, 1, 1).atStartOfDay()))
+                .thenReturn(Stream.of(first, second));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transferExportService.export(TransferExportFormat.NDJSON, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("transactionId").asLong());
+        assertEquals(10L, objectMapper.readTree(lines[1]).get("toCardId").asLong());
+    }
+
+    @Test
+    @DisplayName("Выгрузка с перепутанными датами периода - ошибка")
+    void whenFromIsAfterToThenThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> transferExportService.export(TransferExportFormat.CSV,
+                LocalDate.of(2026, 10, 2), LocalDate.of(2026, 10, 1), new ByteArrayOutputStream()));
+    }
+}
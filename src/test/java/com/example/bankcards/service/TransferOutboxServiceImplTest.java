@@ -0,0 +1,132 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.event.TransferEvent;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.TransferOutboxEvent;
+import com.example.bankcards.repository.TransferOutboxRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.impl.TransferOutboxServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransferOutboxServiceImplTest {
+
+    @Mock
+    private TransferOutboxRepository transferOutboxRepository;
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private TransferEventSink transferEventSink;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TransferOutboxServiceImpl transferOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transferOutboxService, "batchSize", 2);
+        ReflectionTestUtils.invokeMethod(transferOutboxService, "registerMeters");
+    }
+
+    @Test
+    @DisplayName("Ретрансляция - события уходят пачками по порядку outbox, отправленные строки удаляются")
+    @SuppressWarnings("unchecked")
+    void whenRelayThenEventsPublishedInBatchesAndRowsDeleted() {
+        when(transferOutboxRepository.lockNextBatch(2))
+                .thenReturn(List.of(outboxRow(1L, 100L), outboxRow(2L, 101L)))
+                .thenReturn(List.of(outboxRow(3L, 102L)));
+        when(transferRepository.findAllById(List.of(100L, 101L))).thenReturn(List.of(transfer(101L), transfer(100L)));
+        when(transferRepository.findAllById(List.of(102L))).thenReturn(List.of(transfer(102L)));
+        when(transferOutboxRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+
+        int published = transferOutboxService.relay();
+
+        assertEquals(3, published);
+        ArgumentCaptor<List<TransferEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(transferEventSink, times(2)).publish(events.capture());
+        assertEquals(List.of(1L, 2L), events.getAllValues().get(0).stream().map(TransferEvent::getEventId).toList());
+        assertEquals(100L, events.getAllValues().get(0).get(0).getTransferId());
+        verify(transferOutboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(transferOutboxRepository).deleteAllByIdInBatch(List.of(3L));
+        assertEquals(3.0, meterRegistry.get("card.transfer.outbox.published").counter().count());
+    }
+
+    @Test
+    @DisplayName("Сбой получателя - строки outbox не удаляются и уйдут в следующий запуск")
+    void whenSinkFailsThenRowsKept() {
+        when(transferOutboxRepository.lockNextBatch(2)).thenReturn(List.of(outboxRow(1L, 100L)));
+        when(transferRepository.findAllById(List.of(100L))).thenReturn(List.of(transfer(100L)));
+        doThrow(new IllegalStateException("sink unavailable")).when(transferEventSink).publish(any());
+
+        assertThrows(IllegalStateException.class, () -> transferOutboxService.relay());
+
+        verify(transferOutboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("Перевод удалён вместе с картой - строка outbox удаляется без отправки")
+    void whenTransferMissingThenRowDeletedWithoutEvent() {
+        when(transferOutboxRepository.lockNextBatch(2)).thenReturn(List.of(outboxRow(1L, 100L)));
+        when(transferRepository.findAllById(List.of(100L))).thenReturn(List.of());
+        when(transferOutboxRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+
+        assertEquals(0, transferOutboxService.relay());
+
+        verify(transferEventSink, never()).publish(any());
+        verify(transferOutboxRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    private TransferOutboxEvent outboxRow(Long id, Long transferId) {
+        return TransferOutboxEvent.builder()
+                .id(id)
+                .transferId(transferId)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Transfer transfer(Long id) {
+        return Transfer.builder()
+                .id(id)
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(BigDecimal.TEN)
+                .fromCardNewBalance(BigDecimal.ZERO)
+                .toCardNewBalance(BigDecimal.TEN)
+                .build();
+    }
+}
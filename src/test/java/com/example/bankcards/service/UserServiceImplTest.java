@@ -4,6 +4,7 @@ package com.example.bankcards.service;
 import com.example.bankcards.entity.enums.Role;
 import com.example.bankcards.exception.EntityAlreadyExistsException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.PrincipalCache;
 import com.example.bankcards.security.User;
 import com.example.bankcards.service.impl.UserServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
@@ -14,22 +15,27 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +44,9 @@ public class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PrincipalCache principalCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -174,6 +183,37 @@ public class UserServiceImplTest {
         SecurityContextHolder.clearContext();
     }
 
+    @Test
+    @DisplayName("Повторное получение текущего пользователя в одном запросе - БД запрашивается один раз")
+    void whenGetCurrentUserTwiceThenUserIsLoadedOnce() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("testUser", null, List.of()));
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(testUser));
+
+        User first = userService.getCurrentUser();
+        User second = userService.getCurrentUser();
+
+        assertSame(testUser, first);
+        assertSame(testUser, second);
+        verify(userRepository, times(1)).findByUsername("testUser");
+
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Принципал из JWT уже содержит пользователя - БД не запрашивается")
+    void whenPrincipalIsResolvedUserThenRepositoryIsNotQueried() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(testUser, null, testUser.getAuthorities()));
+
+        User result = userService.getCurrentUser();
+
+        assertSame(testUser, result);
+        verifyNoInteractions(userRepository);
+
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     @DisplayName("Назначение роли ADMIN существующему пользователю - успешное обновление")
     void whenGiveAdminToExistingUserThenUpdateRoleToAdmin() {
@@ -201,6 +241,7 @@ public class UserServiceImplTest {
         verify(userRepository).save(argThat(u ->
                 u.getRole() == Role.ROLE_ADMIN
         ));
+        verify(principalCache).evict("user");
     }
 
     @Test
@@ -0,0 +1,35 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorCodecTest {
+
+    @Test
+    @DisplayName("Курсор из id - декодируется обратно, пустой курсор означает первую страницу")
+    void whenIdIsEncodedThenItIsDecodedBack() {
+        assertEquals(42L, CursorCodec.decodeId(CursorCodec.encodeId(42L)));
+        assertEquals(0L, CursorCodec.decodeId(null));
+        assertEquals(0L, CursorCodec.decodeId(""));
+    }
+
+    @Test
+    @DisplayName("Составной курсор - значения с двоеточиями сохраняются")
+    void whenSeveralValuesAreEncodedThenAllAreDecoded() {
+        String cursor = CursorCodec.encode("2026-10-18T12:30:00", 7L);
+
+        assertArrayEquals(new String[]{"2026-10-18T12:30:00", "7"}, CursorCodec.decode(cursor, 2));
+    }
+
+    @Test
+    @DisplayName("Испорченный курсор - IllegalArgumentException")
+    void whenCursorIsMalformedThenThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodeId("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodeId(CursorCodec.encode("abc")));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(CursorCodec.encodeId(1L), 2));
+    }
+}